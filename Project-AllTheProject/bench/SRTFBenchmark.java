@@ -0,0 +1,233 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+ * Benchmarks the public operations of SRTFScheduler over seeded synthetic workloads of different shapes and
+ * sizes. For every benchmark, workload and size it reports the throughput in jobs per second and the allocation
+ * rate measured with the thread allocation counter of the JVM.
+ *
+ * Usage: java SRTFBenchmark [--sizes 10,1000,...] [--workloads uniform,pareto,bursty,idle]
+ *        [--benchmarks add,schedule,...] [--warmup n] [--iterations n] [--seed n] [--producers n]
+ *
+ * The "submit" benchmark, which is not run by default, adds the jobs through a ConcurrentSubmitter from a number
+ * of producer threads (16 by default). Its allocation figures only cover the measuring thread, and every run
+ * starts a drain thread, so it is meant for large sizes.
+ */
+public class SRTFBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+    private static final int MEAN_BURST = 50;
+    private static int Producers = 16;
+    private static ExecutorService ProducerPool;
+
+    /**
+     * One benchmarked operation. setup() prepares a scheduler outside the measured time and run() is measured.
+     */
+    private interface Benchmark {
+        void setup(SRTFScheduler scheduler, int[][] jobs);
+        void run(SRTFScheduler scheduler, int[][] jobs);
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = {10, 1000, 100_000, 1_000_000};
+        String[] workloads = {"uniform", "pareto", "bursty", "idle"};
+        String[] benchmarks = {"add", "schedule", "sortArrival", "sortID", "sortRemaining", "averages"};
+        int warmup = 2, iterations = 5;
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes": sizes = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--workloads": workloads = args[i + 1].split(","); break;
+                case "--benchmarks": benchmarks = args[i + 1].split(","); break;
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--producers": Producers = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        CONSOLE.printf("%-14s %-8s %10s %16s %14s %12s%n",
+                "benchmark", "workload", "jobs", "jobs/s", "bytes/job", "MB/s alloc");
+        for (String workload : workloads)
+            for (int n : sizes) {
+                int[][] jobs = generate(workload, n, seed);
+                for (String name : benchmarks)
+                    measure(name, benchmark(name), workload, jobs, warmup, iterations);
+            }
+        if (ProducerPool != null)
+            ProducerPool.shutdown();
+    }
+
+    private static void measure(String name, Benchmark benchmark, String workload, int[][] jobs,
+                                int warmup, int iterations) {
+        int n = jobs[0].length;
+        // Small sizes run many operations per iteration so that the timer resolution does not matter
+        int repeat = Math.max(1, 1_000_000 / n);
+        SRTFScheduler[] schedulers = new SRTFScheduler[repeat];
+        long time = 0, allocated = 0;
+        for (int it = 0; it < warmup + iterations; it++) {
+            for (int r = 0; r < repeat; r++) {
+                schedulers[r] = new SRTFScheduler();
+                benchmark.setup(schedulers[r], jobs);
+            }
+            System.setOut(DISCARD);
+            long bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            for (int r = 0; r < repeat; r++)
+                benchmark.run(schedulers[r], jobs);
+            long elapsed = System.nanoTime() - start;
+            bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - bytes;
+            System.setOut(CONSOLE);
+            if (it >= warmup) {
+                time += elapsed;
+                allocated += bytes;
+            }
+        }
+        double seconds = time / 1e9;
+        double total = (double) n * repeat * iterations;
+        CONSOLE.printf("%-14s %-8s %10d %16.0f %14.1f %12.1f%n",
+                name, workload, n, total / seconds, allocated / total, allocated / seconds / (1 << 20));
+    }
+
+    private static Benchmark benchmark(String name) {
+        switch (name) {
+            case "add": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {}
+                public void run(SRTFScheduler s, int[][] jobs) {addAll(s, jobs);}
+            };
+            case "schedule": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {addAll(s, jobs);}
+                public void run(SRTFScheduler s, int[][] jobs) {s.SchedulingAlgorithm();}
+            };
+            case "sortArrival": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {addAll(s, jobs); s.ReSortBasedOnProcessID();}
+                public void run(SRTFScheduler s, int[][] jobs) {s.ReSortBasedOnArriveTime();}
+            };
+            case "sortID": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {addAll(s, jobs); s.ReSortBasedOnArriveTime();}
+                public void run(SRTFScheduler s, int[][] jobs) {s.ReSortBasedOnProcessID();}
+            };
+            case "sortRemaining": return new Benchmark() {
+                private final List<ArrayList<Process>> Lists = new ArrayList<>();
+                private int Next = 0;
+                public void setup(SRTFScheduler s, int[][] jobs) {
+                    addAll(s, jobs);
+                    ArrayList<Process> list = new ArrayList<>(s.getNumOfProcess());
+                    for (int i = 0; i < s.getNumOfProcess(); i++)
+                        list.add(s.getProcess(i));
+                    Lists.add(list);
+                }
+                public void run(SRTFScheduler s, int[][] jobs) {
+                    s.ReSortBasedOnRemainingTIme(Lists.get(Next++));
+                    if (Next == Lists.size()) {
+                        Lists.clear();
+                        Next = 0;
+                    }
+                }
+            };
+            case "submit": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {}
+                public void run(SRTFScheduler s, int[][] jobs) {submitAll(s, jobs);}
+            };
+            case "averages": return new Benchmark() {
+                public void setup(SRTFScheduler s, int[][] jobs) {
+                    addAll(s, jobs);
+                    s.setRecordGantt(false);
+                    s.SchedulingAlgorithm();
+                }
+                public void run(SRTFScheduler s, int[][] jobs) {s.PrintProcessesAverages();}
+            };
+            default: throw new IllegalArgumentException("Unknown benchmark " + name);
+        }
+    }
+
+    private static void addAll(SRTFScheduler scheduler, int[][] jobs) {
+        int[] id = jobs[0], at = jobs[1], bt = jobs[2];
+        for (int i = 0; i < id.length; i++)
+            scheduler.AddProcess(id[i], at[i], bt[i]);
+    }
+
+    // Every producer thread submits its own contiguous share of the jobs
+    private static void submitAll(SRTFScheduler scheduler, int[][] jobs) {
+        if (ProducerPool == null)
+            ProducerPool = Executors.newFixedThreadPool(Producers);
+        int[] id = jobs[0], at = jobs[1], bt = jobs[2];
+        List<Callable<Void>> shares = new ArrayList<>(Producers);
+        try (ConcurrentSubmitter submitter = new ConcurrentSubmitter(scheduler)) {
+            for (int p = 0; p < Producers; p++) {
+                int from = (int) ((long) id.length * p / Producers), to = (int) ((long) id.length * (p + 1) / Producers);
+                shares.add(() -> {
+                    for (int i = from; i < to; i++)
+                        submitter.submit(id[i], at[i], bt[i]);
+                    return null;
+                });
+            }
+            for (Future<Void> share : ProducerPool.invokeAll(shares))
+                share.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates n jobs as three columns (ID, arrival time, burst time), in a shuffled submission order.
+     * uniform: evenly spread arrivals and uniform bursts; pareto: heavy-tailed bursts; bursty: arrivals in
+     * tight clusters; idle: sparse arrivals separated by long idle gaps.
+     */
+    private static int[][] generate(String workload, int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] id = new int[n], at = new int[n], bt = new int[n];
+        long time = 0;
+        for (int i = 0; i < n; i++) {
+            id[i] = i + 1;
+            switch (workload) {
+                case "uniform":
+                    bt[i] = 1 + random.nextInt(2 * MEAN_BURST - 1);
+                    time += random.nextInt(2 * MEAN_BURST * 10 / 9 + 1);
+                    break;
+                case "pareto":
+                    // Pareto with shape 1.5 and scale MEAN_BURST / 3, which has mean MEAN_BURST
+                    double pareto = (MEAN_BURST / 3.0) / Math.pow(1 - random.nextDouble(), 1 / 1.5);
+                    bt[i] = (int) Math.min(1_000_000, Math.max(1, pareto));
+                    time += random.nextInt(2 * MEAN_BURST * 10 / 9 + 1);
+                    break;
+                case "bursty":
+                    bt[i] = 1 + random.nextInt(2 * MEAN_BURST - 1);
+                    if (random.nextInt(100) == 0) time += 100L * MEAN_BURST * 10 / 9;
+                    break;
+                case "idle":
+                    bt[i] = 1 + random.nextInt(2 * MEAN_BURST - 1);
+                    time += random.nextInt(10) == 0 ? 10L * MEAN_BURST + random.nextInt(100 * MEAN_BURST) : MEAN_BURST;
+                    break;
+                default: throw new IllegalArgumentException("Unknown workload " + workload);
+            }
+            at[i] = (int) Math.min(time, Integer.MAX_VALUE / 2);
+        }
+        // Shuffle the submission order so the arrival sort has real work to do
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            swap(id, i, j);
+            swap(at, i, j);
+            swap(bt, i, j);
+        }
+        return new int[][] {id, at, bt};
+    }
+
+    private static void swap(int[] column, int i, int j) {
+        int temp = column[i];
+        column[i] = column[j];
+        column[j] = temp;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+/**
+ * Schedules many independent workloads in parallel on a ForkJoinPool. Every workload gets its own SRTFScheduler,
+ * and nothing is printed while scheduling, so the workloads share no state and the throughput grows with the
+ * number of threads in the pool.
+ */
+public class BatchEvaluator {
+    private final ForkJoinPool Pool;
+    private int Cores = 1;                  // Number of CPU cores every workload is scheduled on
+
+    /**
+     * Constructs an evaluator that runs on the common ForkJoinPool.
+     */
+    public BatchEvaluator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an evaluator that runs on the given pool.
+     *
+     * @param pool the pool the workloads are scheduled on
+     */
+    public BatchEvaluator(ForkJoinPool pool) {
+        Pool = pool;
+    }
+
+    /**
+     * Sets the number of identical CPU cores every workload is scheduled on. The default is 1.
+     *
+     * @param cores the number of simulated cores, at least 1
+     */
+    public void setCores(int cores) {
+        if (cores < 1) throw new IllegalArgumentException("The number of cores must be at least 1: " + cores);
+        Cores = cores;
+    }
+
+    /**
+     * Schedules every workload and returns their averages, in the same order as the workloads.
+     *
+     * @param workloads the workloads to evaluate
+     * @return the averages of every workload
+     */
+    public List<WorkloadResult> evaluate(List<Workload> workloads) {
+        Workload[] input = workloads.toArray(new Workload[0]);
+        WorkloadResult[] results = new WorkloadResult[input.length];
+        Pool.invoke(new Evaluate(input, results, 0, input.length));
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Schedules a single workload on the calling thread.
+     *
+     * @param workload the workload to evaluate
+     * @return the averages of the workload
+     */
+    public WorkloadResult evaluate(Workload workload) {
+        SRTFScheduler scheduler = new SRTFScheduler();
+        scheduler.setRecordGantt(false);
+        scheduler.setCores(Cores);
+        workload.load(scheduler);
+        scheduler.SchedulingAlgorithm();
+        return new WorkloadResult(scheduler);
+    }
+
+    // Splits the range of workloads in halves until a single workload is left
+    private class Evaluate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Workload[] Workloads;
+        private final WorkloadResult[] Results;
+        private final int From, To;
+
+        Evaluate(Workload[] workloads, WorkloadResult[] results, int from, int to) {
+            Workloads = workloads;
+            Results = results;
+            From = from;
+            To = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (To - From == 1) {
+                Results[From] = evaluate(Workloads[From]);
+            } else if (To - From > 1) {
+                int middle = (From + To) >>> 1;
+                invokeAll(new Evaluate(Workloads, Results, From, middle), new Evaluate(Workloads, Results, middle, To));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+/**
+ * Renders a Gantt chart as a binary segment file: a header with the magic number "SRTG", the format version and
+ * the number of segments, followed by one 13-byte record per segment (start, end and process ID as big-endian
+ * ints, then 1 for an idle segment or 0 otherwise). The lanes of a multi-core schedule are written as one such
+ * block per core.
+ */
+public class BinaryGanttRenderer implements GanttRenderer {
+    public static final int MAGIC = 0x53525447;     // "SRTG"
+    public static final int VERSION = 1;
+
+    @Override
+    public void render(GanttChart chart, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(chart.size());
+        for (int i = 0; i < chart.size(); i++) {
+            data.writeInt(chart.getStart(i));
+            data.writeInt(chart.getEnd(i));
+            data.writeInt(chart.getProcessID(i));
+            data.writeByte(chart.isIdle(i) ? 1 : 0);
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.SplittableRandom;
+/**
+ * The distribution the burst times of a WorkloadGenerator are drawn from. Samples are rounded to whole time
+ * units and kept between 1 and 1,000,000, so a heavy tail cannot overflow the simulation clock.
+ */
+public interface BurstDistribution {
+    int MAX_BURST = 1_000_000;
+
+    /**
+     * Draws one burst time.
+     *
+     * @param random the random number generator of the calling thread
+     * @return the burst time, between 1 and MAX_BURST
+     */
+    int sample(SplittableRandom random);
+
+    /**
+     * Returns the mean of the distribution before rounding and capping.
+     *
+     * @return the mean burst time
+     */
+    double getMean();
+
+    /**
+     * Returns exponentially distributed burst times.
+     *
+     * @param mean the mean burst time, greater than 0
+     * @return the distribution
+     */
+    static BurstDistribution exponential(double mean) {
+        if (!(mean > 0)) throw new IllegalArgumentException("The mean must be greater than 0: " + mean);
+        return new BurstDistribution() {
+            @Override
+            public int sample(SplittableRandom random) {return clamp(-mean * Math.log(1 - random.nextDouble()));}
+
+            @Override
+            public double getMean() {return mean;}
+        };
+    }
+
+    /**
+     * Returns Pareto distributed burst times: most bursts are short, but a few are very long.
+     *
+     * @param shape the shape (tail index), greater than 1 so the mean is finite; smaller means a heavier tail
+     * @param mean the mean burst time, greater than 0
+     * @return the distribution
+     */
+    static BurstDistribution pareto(double shape, double mean) {
+        if (!(shape > 1)) throw new IllegalArgumentException("The Pareto shape must be greater than 1: " + shape);
+        if (!(mean > 0)) throw new IllegalArgumentException("The mean must be greater than 0: " + mean);
+        double scale = mean * (shape - 1) / shape, exponent = -1 / shape;
+        return new BurstDistribution() {
+            @Override
+            public int sample(SplittableRandom random) {return clamp(scale * Math.pow(1 - random.nextDouble(), exponent));}
+
+            @Override
+            public double getMean() {return mean;}
+        };
+    }
+
+    /**
+     * Returns a mix of short and long jobs, each kind with exponentially distributed burst times.
+     *
+     * @param shortMean the mean burst time of the short jobs, greater than 0
+     * @param longMean the mean burst time of the long jobs, greater than 0
+     * @param longFraction the fraction of long jobs, between 0 and 1
+     * @return the distribution
+     */
+    static BurstDistribution bimodal(double shortMean, double longMean, double longFraction) {
+        if (!(longFraction >= 0 && longFraction <= 1))
+            throw new IllegalArgumentException("The fraction of long jobs must be between 0 and 1: " + longFraction);
+        BurstDistribution shortJobs = exponential(shortMean), longJobs = exponential(longMean);
+        return new BurstDistribution() {
+            @Override
+            public int sample(SplittableRandom random) {
+                return (random.nextDouble() < longFraction ? longJobs : shortJobs).sample(random);
+            }
+
+            @Override
+            public double getMean() {return (1 - longFraction) * shortMean + longFraction * longMean;}
+        };
+    }
+
+    /**
+     * Returns the distribution for the given name: "exponential:&lt;mean&gt;", "pareto:&lt;shape&gt;:&lt;mean&gt;"
+     * or "bimodal:&lt;short mean&gt;:&lt;long mean&gt;:&lt;long fraction&gt;".
+     *
+     * @param name the name of the distribution, not case sensitive
+     * @return the distribution
+     */
+    static BurstDistribution forName(String name) {
+        String[] parts = name.toLowerCase().split(":");
+        double[] values = new double[parts.length - 1];
+        try {
+            for (int i = 1; i < parts.length; i++)
+                values[i - 1] = Double.parseDouble(parts[i]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid parameter in burst distribution: " + name);
+        }
+        switch (parts[0] + "/" + values.length) {
+            case "exponential/1": return exponential(values[0]);
+            case "pareto/2":      return pareto(values[0], values[1]);
+            case "bimodal/3":     return bimodal(values[0], values[1], values[2]);
+            default: throw new IllegalArgumentException("Unknown burst distribution: " + name);
+        }
+    }
+
+    private static int clamp(double burst) {
+        return (int) Math.min(MAX_BURST, Math.max(1, Math.round(burst)));
+    }
+}
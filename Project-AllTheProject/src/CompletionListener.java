@@ -0,0 +1,13 @@
+/**
+ * Receives every process as soon as the scheduler finishes it.
+ */
+@FunctionalInterface
+public interface CompletionListener {
+    /**
+     * Called once for each process when it terminates. The process is a view over the scheduler's table and is
+     * only valid for the duration of the call; copy any values that are needed later.
+     *
+     * @param process the process that has just terminated
+     */
+    void processCompleted(Process process);
+}
@@ -0,0 +1,79 @@
+/**
+ * A thread-safe set of primitive int values. The values are spread over 64 stripes by a hash of their high bits,
+ * and each stripe is an IntSet guarded by its own lock, so threads only contend when they touch the same stripe
+ * and no value is ever boxed.
+ */
+public class ConcurrentIntSet {
+    private static final int STRIPE_BITS = 6;
+
+    private final IntSet[] Stripes = new IntSet[1 << STRIPE_BITS];
+
+    /**
+     * Constructs an empty set sized for the given number of values.
+     *
+     * @param expected the number of values expected to be added
+     */
+    public ConcurrentIntSet(int expected) {
+        for (int i = 0; i < Stripes.length; i++)
+            Stripes[i] = new IntSet(expected >> STRIPE_BITS);
+    }
+
+    /**
+     * Returns true if the set contains the given value.
+     *
+     * @param value the value to look for
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        IntSet stripe = stripe(value);
+        synchronized (stripe) {
+            return stripe.contains(value);
+        }
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value to add
+     * @return true if the value was added, false if it was already in the set
+     */
+    public boolean add(int value) {
+        IntSet stripe = stripe(value);
+        synchronized (stripe) {
+            return stripe.add(value);
+        }
+    }
+
+    /**
+     * Removes a value from the set.
+     *
+     * @param value the value to remove
+     * @return true if the value was removed, false if it was not in the set
+     */
+    public boolean remove(int value) {
+        IntSet stripe = stripe(value);
+        synchronized (stripe) {
+            return stripe.remove(value);
+        }
+    }
+
+    /**
+     * Returns the number of values in the set. While other threads change the set, the result is only a snapshot
+     * of each stripe in turn.
+     *
+     * @return the number of values in the set
+     */
+    public int size() {
+        int size = 0;
+        for (IntSet stripe : Stripes)
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        return size;
+    }
+
+    // A different multiplier than IntSet uses, so the stripe says nothing about the bucket within it
+    private IntSet stripe(int value) {
+        return Stripes[(value * 0x85EBCA6B) >>> (Integer.SIZE - STRIPE_BITS)];
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.concurrent.locks.LockSupport;
+/**
+ * Concurrent submission front end for an SRTFScheduler. Any number of producer threads submit processes, which
+ * are checked for duplicate IDs in a ConcurrentIntSet and queued in a lock-free SubmissionRing; a single drain
+ * thread moves them into the scheduler in batches with AddProcess(). The scheduler itself stays single-threaded:
+ * it belongs to the drain thread until close() returns, after which it can be scheduled as usual.
+ *
+ * Processes from different producers reach the scheduler in the order their slots were claimed, and a producer's
+ * own processes keep the order it submitted them in.
+ */
+public class ConcurrentSubmitter implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int BATCH = 1024;                  // Processes moved per drain before checking for work
+    private static final long IDLE_PARK_NANOS = 50_000;     // Nap of the drain thread when the ring is empty
+
+    private final SRTFScheduler Scheduler;
+    private final ConcurrentIntSet IDs;
+    private final SubmissionRing Ring;
+    private final Thread Drainer;
+    private volatile Throwable Failure;                     // Thrown by the drain thread, reported to callers
+
+    /**
+     * Constructs a front end with a ring of 65536 slots and starts its drain thread.
+     *
+     * @param scheduler the scheduler to feed, which must not be used by other threads until close() returns
+     */
+    public ConcurrentSubmitter(SRTFScheduler scheduler) {
+        this(scheduler, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a front end and starts its drain thread. The processes already in the scheduler take part in
+     * the duplicate ID check.
+     *
+     * @param scheduler the scheduler to feed, which must not be used by other threads until close() returns
+     * @param capacity the number of slots of the ring, rounded up to a power of two
+     */
+    public ConcurrentSubmitter(SRTFScheduler scheduler, int capacity) {
+        Scheduler = scheduler;
+        Ring = new SubmissionRing(capacity);
+        IDs = new ConcurrentIntSet(Math.max(scheduler.getNumOfProcess(), capacity));
+        for (int i = 0; i < scheduler.getNumOfProcess(); i++)
+            IDs.add(scheduler.getProcess(i).getProcessID());
+        Drainer = new Thread(this::drain, "SRTFScheduler-drain");
+        Drainer.setDaemon(true);
+        Drainer.start();
+    }
+
+    /**
+     * Submits a new process. Safe to call from any number of threads; it only waits when the ring is full.
+     *
+     * @param id the ID of the process
+     * @param at the arrival time, not negative
+     * @param bt the burst time, greater than 0
+     * @return true if the process was accepted, false if its ID is already taken
+     * @throws IllegalStateException if the front end is closed or the drain thread failed
+     */
+    public boolean submit(int id, int at, int bt) {
+        if (at < 0 || bt <= 0)
+            throw new IllegalArgumentException("Invalid arrival time " + at + " or burst time " + bt);
+        if (!IDs.add(id)) return false;
+        if (!Ring.offer(id, at, bt)) {
+            IDs.remove(id);
+            if (Failure != null)
+                throw new IllegalStateException("The drain thread failed", Failure);
+            throw new IllegalStateException("The submitter is closed");
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if no accepted process uses the given ID.
+     *
+     * @param id the process ID to check
+     * @return true if the given ID is valid, false otherwise
+     */
+    public boolean ValidID(int id) {
+        return !IDs.contains(id);
+    }
+
+    /**
+     * Stops accepting processes, waits until every accepted process has been added to the scheduler and stops
+     * the drain thread. The scheduler can be used by the calling thread afterwards.
+     *
+     * @throws IllegalStateException if the drain thread failed
+     */
+    @Override
+    public void close() {
+        Ring.close();
+        LockSupport.unpark(Drainer);
+        boolean interrupted = false;
+        while (Drainer.isAlive()) {
+            try {
+                Drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (Failure != null)
+            throw new IllegalStateException("The drain thread failed", Failure);
+    }
+
+    // Body of the drain thread: move batches until the ring is closed and empty, napping while it is idle. If it
+    // fails, the ring is aborted so that producers fail fast instead of waiting for slots that are never freed
+    private void drain() {
+        try {
+            for (int idle = 0; ; ) {
+                if (Ring.drainTo(Scheduler, BATCH) > 0) {
+                    idle = 0;
+                } else if (Ring.isDrained()) {
+                    return;
+                } else if (++idle < 64) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (Throwable e) {
+            Failure = e;
+            Ring.abort();
+        }
+    }
+}
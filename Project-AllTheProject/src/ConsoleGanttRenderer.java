@@ -0,0 +1,47 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+/**
+ * Renders a Gantt chart as the single line of text printed by the console program, for example
+ * "0 | P1 | 3 | NP | 5 | P2 | 9".
+ */
+public class ConsoleGanttRenderer implements GanttRenderer {
+    @Override
+    public void render(GanttChart chart, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        write(chart, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes one line per core, each starting with "Core n: ". A single lane is written without the prefix.
+     */
+    @Override
+    public void render(GanttChart[] lanes, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        for (int c = 0; c < lanes.length; c++) {
+            if (lanes.length > 1)
+                writer.write("Core " + (c + 1) + ": ");
+            write(lanes[c], writer);
+        }
+        writer.flush();
+    }
+
+    private static void write(GanttChart chart, Writer writer) throws IOException {
+        for (int i = 0; i < chart.size(); i++) {
+            writer.write(Integer.toString(chart.getStart(i)));
+            if (chart.isIdle(i)) {
+                writer.write(" | NP | ");
+            } else {
+                writer.write(" | P");
+                writer.write(Integer.toString(chart.getProcessID(i)));
+                writer.write(" | ");
+            }
+        }
+        writer.write(Integer.toString(chart.getEndTime()));
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,44 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+/**
+ * Renders a Gantt chart as CSV with one "start,end,process" row per segment. Idle segments use "NP" as the
+ * process.
+ */
+public class CsvGanttRenderer implements GanttRenderer {
+    @Override
+    public void render(GanttChart chart, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        writer.write("start,end,process\n");
+        write(chart, null, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes all lanes in one table with an extra leading "core" column, numbered from 1.
+     */
+    @Override
+    public void render(GanttChart[] lanes, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        writer.write("core,start,end,process\n");
+        for (int c = 0; c < lanes.length; c++)
+            write(lanes[c], (c + 1) + ",", writer);
+        writer.flush();
+    }
+
+    private static void write(GanttChart chart, String prefix, Writer writer) throws IOException {
+        for (int i = 0; i < chart.size(); i++) {
+            if (prefix != null)
+                writer.write(prefix);
+            writer.write(Integer.toString(chart.getStart(i)));
+            writer.write(',');
+            writer.write(Integer.toString(chart.getEnd(i)));
+            writer.write(',');
+            writer.write(chart.isIdle(i) ? "NP" : Integer.toString(chart.getProcessID(i)));
+            writer.write('\n');
+        }
+    }
+}
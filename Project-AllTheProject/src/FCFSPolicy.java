@@ -0,0 +1,50 @@
+/**
+ * First Come First Served: processes run to completion in the order they arrive. Processes are handed to the
+ * engine in arrival order, so the ready set is a plain IntQueue.
+ */
+public class FCFSPolicy implements SchedulingPolicy {
+    private IntQueue WaitingQueue;              // Waiting processes in arrival order
+
+    @Override
+    public String getName() {return "FCFS";}
+
+    @Override
+    public void reset(ProcessTable table) {WaitingQueue = new IntQueue(16);}
+
+    @Override
+    public void arrived(int row) {WaitingQueue.add(row);}
+
+    @Override
+    public void preempted(int row) {throw new IllegalStateException("FCFS never preempts");}
+
+    @Override
+    public void expired(int row) {throw new IllegalStateException("FCFS has no time slice");}
+
+    @Override
+    public int next() {return WaitingQueue.poll();}
+
+    @Override
+    public boolean preempts(int running) {return false;}
+
+    @Override
+    public int getTimeSlice(int row) {return Integer.MAX_VALUE;}
+
+    @Override
+    public boolean isEmpty() {return WaitingQueue.isEmpty();}
+
+    @Override
+    public int size() {return WaitingQueue.size();}
+
+    @Override
+    public State saveState() {
+        int[] waiting = WaitingQueue.toArray();
+        return () -> waiting;
+    }
+
+    @Override
+    public void restoreState(State state) {
+        WaitingQueue.clear();
+        for (int row : state.getWaiting())
+            WaitingQueue.add(row);
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.BitSet;
+/**
+ * Records a schedule as a compact list of run-length segments. Each segment starts when a process is dispatched
+ * or the CPU becomes idle and ends where the next segment starts; the last one ends at the end time of the chart.
+ * Only the start time and process ID of each segment are stored, plus one bit marking idle (NP) segments.
+ */
+public class GanttChart {
+    private int[] Start;            // Start[i] is the time at which segment i begins
+    private int[] ProcessID;        // ProcessID[i] is the process executed in segment i
+    private final BitSet Idle;      // Set for segments in which no process is executed
+    private int Size;
+    private int EndTime;
+
+    /**
+     * Constructs an empty Gantt chart.
+     */
+    public GanttChart() {
+        Start = new int[16];
+        ProcessID = new int[16];
+        Idle = new BitSet();
+    }
+
+    /**
+     * Starts a new segment in which the given process is executed.
+     *
+     * @param start the time the segment starts
+     * @param id the ID of the process
+     */
+    public void add(int start, int id) {
+        if (Size == Start.length) {
+            Start = Arrays.copyOf(Start, Size * 2);
+            ProcessID = Arrays.copyOf(ProcessID, Size * 2);
+        }
+        Start[Size] = start;
+        ProcessID[Size] = id;
+        Idle.clear(Size);
+        Size++;
+        EndTime = start;
+    }
+
+    /**
+     * Starts a new segment in which no process is executed.
+     *
+     * @param start the time the segment starts
+     */
+    public void addIdle(int start) {
+        add(start, 0);
+        Idle.set(Size - 1);
+    }
+
+    /**
+     * Sets the time at which the last segment ends.
+     *
+     * @param end the end time of the chart
+     */
+    public void setEndTime(int end) {EndTime = end;}
+
+    /**
+     * Returns the time at which the last segment ends.
+     *
+     * @return the end time of the chart
+     */
+    public int getEndTime() {return EndTime;}
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return the number of segments
+     */
+    public int size() {return Size;}
+
+    /**
+     * Returns the start time of a segment.
+     *
+     * @param i the segment
+     * @return the start time of the segment
+     */
+    public int getStart(int i) {return Start[i];}
+
+    /**
+     * Returns the end time of a segment.
+     *
+     * @param i the segment
+     * @return the end time of the segment
+     */
+    public int getEnd(int i) {return i + 1 < Size ? Start[i + 1] : EndTime;}
+
+    /**
+     * Returns the ID of the process executed in a segment. The value is meaningless for idle segments.
+     *
+     * @param i the segment
+     * @return the process ID of the segment
+     */
+    public int getProcessID(int i) {return ProcessID[i];}
+
+    /**
+     * Returns true if no process is executed in a segment.
+     *
+     * @param i the segment
+     * @return true if the segment is idle, false otherwise
+     */
+    public boolean isIdle(int i) {return Idle.get(i);}
+
+    /**
+     * Returns the number of context switches in the chart, that is the number of segments in which a process is
+     * executed. Every such segment starts with the process being put on the CPU.
+     *
+     * @return the number of context switches
+     */
+    public int getContextSwitches() {return Size - Idle.cardinality();}
+
+    /**
+     * Removes the segments after the first given number and sets the end time, which rolls the chart back to
+     * an earlier point of the same schedule.
+     *
+     * @param size the number of segments to keep
+     * @param end the end time of the chart
+     */
+    public void truncate(int size, int end) {
+        Idle.clear(size, Math.max(size, Size));
+        Size = size;
+        EndTime = end;
+    }
+
+    /**
+     * Removes every segment.
+     */
+    public void clear() {
+        Size = 0;
+        EndTime = 0;
+        Idle.clear();
+    }
+}
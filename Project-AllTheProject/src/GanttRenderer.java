@@ -0,0 +1,44 @@
+import java.io.IOException;
+import java.io.OutputStream;
+/**
+ * Turns a recorded GanttChart into output. Rendering is separate from scheduling, so it can be done in any
+ * format, or skipped.
+ */
+public interface GanttRenderer {
+    /**
+     * Writes the chart to the given stream. The stream is flushed but not closed.
+     *
+     * @param chart the chart to render
+     * @param out the stream to write to, ideally buffered
+     * @throws IOException if the stream cannot be written
+     */
+    void render(GanttChart chart, OutputStream out) throws IOException;
+
+    /**
+     * Writes the lanes of a multi-core schedule, one chart per core. By default the lanes are rendered one after
+     * the other.
+     *
+     * @param lanes the chart of every core, in core order
+     * @param out the stream to write to, ideally buffered
+     * @throws IOException if the stream cannot be written
+     */
+    default void render(GanttChart[] lanes, OutputStream out) throws IOException {
+        for (GanttChart lane : lanes)
+            render(lane, out);
+    }
+
+    /**
+     * Returns the renderer for the given format name: "console", "csv" or "binary".
+     *
+     * @param format the name of the format
+     * @return the renderer for the format
+     */
+    static GanttRenderer forFormat(String format) {
+        switch (format.toLowerCase()) {
+            case "console": return new ConsoleGanttRenderer();
+            case "csv":     return new CsvGanttRenderer();
+            case "binary":  return new BinaryGanttRenderer();
+            default: throw new IllegalArgumentException("Unknown Gantt chart format: " + format);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * First-in first-out queue of primitive int values in a growable ring buffer, so no value is ever boxed.
+ * Adding and removing cost O(1).
+ */
+public class IntQueue {
+    private int[] Values;
+    private int Head = 0;       // Index of the oldest value
+    private int Size = 0;
+
+    /**
+     * Constructs an empty queue with room for the given number of values before it needs to grow.
+     *
+     * @param capacity the initial capacity
+     */
+    public IntQueue(int capacity) {
+        Values = new int[Math.max(Integer.highestOneBit(Math.max(capacity, 1) - 1) << 1, 1)];
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     *
+     * @return the number of values in the queue
+     */
+    public int size() {return Size;}
+
+    /**
+     * Returns true if the queue holds no values.
+     *
+     * @return true if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {return Size == 0;}
+
+    /**
+     * Adds a value at the tail of the queue.
+     *
+     * @param value the value to add
+     */
+    public void add(int value) {
+        if (Size == Values.length) grow();
+        Values[(Head + Size) & (Values.length - 1)] = value;
+        Size++;
+    }
+
+    /**
+     * Returns the value at the head of the queue without removing it.
+     *
+     * @return the oldest value, or -1 if the queue is empty
+     */
+    public int peek() {return Size == 0 ? -1 : Values[Head];}
+
+    /**
+     * Removes and returns the value at the head of the queue.
+     *
+     * @return the oldest value, or -1 if the queue is empty
+     */
+    public int poll() {
+        if (Size == 0) return -1;
+        int value = Values[Head];
+        Head = (Head + 1) & (Values.length - 1);
+        Size--;
+        return value;
+    }
+
+    /**
+     * Returns the values in the queue from the oldest to the newest.
+     *
+     * @return a copy of the values
+     */
+    public int[] toArray() {
+        int[] values = new int[Size];
+        for (int i = 0; i < Size; i++)
+            values[i] = Values[(Head + i) & (Values.length - 1)];
+        return values;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        Head = 0;
+        Size = 0;
+    }
+
+    // Double the buffer and unwrap the values so the head is at index 0
+    private void grow() {
+        int[] values = new int[Values.length * 2];
+        int first = Math.min(Size, Values.length - Head);
+        System.arraycopy(Values, Head, values, 0, first);
+        System.arraycopy(Values, 0, values, first, Size - first);
+        Values = values;
+        Head = 0;
+    }
+}
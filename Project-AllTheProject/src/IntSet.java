@@ -0,0 +1,139 @@
+import java.util.Arrays;
+/**
+ * A set of primitive int values using open addressing with linear probing, so no value is ever boxed.
+ * The table is kept at most half full and doubles in size when it reaches that load.
+ */
+public class IntSet {
+    private static final int EMPTY = 0;     // Marks a free bucket; the value 0 itself is tracked by ContainsZero
+
+    private int[] Buckets;
+    private int Size;
+    private boolean ContainsZero;
+
+    /**
+     * Constructs an empty set sized for the given number of values.
+     *
+     * @param expected the number of values expected to be added
+     */
+    public IntSet(int expected) {
+        Buckets = new int[tableSizeFor(expected)];
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the number of values in the set
+     */
+    public int size() {return Size;}
+
+    /**
+     * Returns true if the set contains the given value.
+     *
+     * @param value the value to look for
+     * @return true if the value is in the set, false otherwise
+     */
+    public boolean contains(int value) {
+        if (value == EMPTY) return ContainsZero;
+        int mask = Buckets.length - 1;
+        for (int i = hash(value) & mask; Buckets[i] != EMPTY; i = (i + 1) & mask)
+            if (Buckets[i] == value) return true;
+        return false;
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value to add
+     * @return true if the value was added, false if it was already in the set
+     */
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (ContainsZero) return false;
+            ContainsZero = true;
+            Size++;
+            return true;
+        }
+        int mask = Buckets.length - 1;
+        int i = hash(value) & mask;
+        for (; Buckets[i] != EMPTY; i = (i + 1) & mask)
+            if (Buckets[i] == value) return false;
+        Buckets[i] = value;
+        if (++Size * 2 > Buckets.length) rehash(Buckets.length * 2);
+        return true;
+    }
+
+    /**
+     * Removes a value from the set. The following entries of the probe run are shifted back so that lookups
+     * never need tombstones.
+     *
+     * @param value the value to remove
+     * @return true if the value was removed, false if it was not in the set
+     */
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            if (!ContainsZero) return false;
+            ContainsZero = false;
+            Size--;
+            return true;
+        }
+        int mask = Buckets.length - 1;
+        int i = hash(value) & mask;
+        while (Buckets[i] != value) {
+            if (Buckets[i] == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+        // Backward-shift deletion: move later entries into the gap if their home bucket allows it
+        for (int j = (i + 1) & mask; Buckets[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(Buckets[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                Buckets[i] = Buckets[j];
+                i = j;
+            }
+        }
+        Buckets[i] = EMPTY;
+        Size--;
+        return true;
+    }
+
+    /**
+     * Grows the table so that the given number of values can be added without rehashing.
+     *
+     * @param expected the number of values expected in the set
+     */
+    public void ensureCapacity(int expected) {
+        int size = tableSizeFor(expected);
+        if (size > Buckets.length) rehash(size);
+    }
+
+    /**
+     * Removes every value from the set.
+     */
+    public void clear() {
+        Arrays.fill(Buckets, EMPTY);
+        ContainsZero = false;
+        Size = 0;
+    }
+
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int expected) {
+        int size = 16;
+        while (size < expected * 2L && size < (1 << 30)) size <<= 1;
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = Buckets;
+        Buckets = new int[capacity];
+        int mask = capacity - 1;
+        for (int value : old) {
+            if (value == EMPTY) continue;
+            int i = hash(value) & mask;
+            while (Buckets[i] != EMPTY) i = (i + 1) & mask;
+            Buckets[i] = value;
+        }
+    }
+}
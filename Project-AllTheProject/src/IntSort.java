@@ -0,0 +1,54 @@
+import java.util.Arrays;
+/**
+ * Stable O(n) sorting of primitive int keys using a least-significant-digit radix sort.
+ * Instead of moving the keys, the sort returns the order in which the rows should be visited, so a columnar
+ * table can apply the same permutation to all of its columns.
+ */
+public final class IntSort {
+    private static final int BITS = 8;                  // Bits per radix digit
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    private IntSort() {}
+
+    /**
+     * Returns the rows 0 to n - 1 ordered by ascending key. Rows with equal keys keep their original order.
+     * Negative keys are supported.
+     *
+     * @param keys the key of every row
+     * @param n the number of rows to sort
+     * @return an array where element i is the row that belongs at position i
+     */
+    public static int[] sortedOrder(int[] keys, int n) {
+        int[] order = new int[n];
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+
+        int[] count = new int[BUCKETS];
+        for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++)
+                count[digit(keys[order[i]], shift)]++;
+            // All keys share this digit, so the pass would not move anything
+            if (n == 0 || count[digit(keys[order[0]], shift)] == n) continue;
+
+            for (int b = 0, sum = 0; b < BUCKETS; b++) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++)
+                buffer[count[digit(keys[order[i]], shift)]++] = order[i];
+            int[] temp = order;
+            order = buffer;
+            buffer = temp;
+        }
+        return order;
+    }
+
+    // Flipping the sign bit makes the unsigned digit order match the signed int order
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & MASK;
+    }
+}
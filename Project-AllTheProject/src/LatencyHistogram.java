@@ -0,0 +1,158 @@
+import java.util.Arrays;
+/**
+ * Fixed-memory histogram of non-negative int values with a bounded relative error, in the style of an HDR
+ * histogram. Values below 256 are counted exactly; above that every power-of-two range is split into 128 equal
+ * buckets, so a reported percentile is never more than 1/128 (about 0.8%) above the true value.
+ * The whole int range fits in 3200 counters, whatever the number of recorded values.
+ */
+public class LatencyHistogram {
+    private static final int PRECISION = 8;                     // Values below 2^PRECISION are exact
+    private static final int SUB_BUCKETS = 1 << PRECISION;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (Integer.SIZE - 1 - PRECISION) * HALF;
+
+    private final long[] Counts = new long[BUCKETS];
+    private long TotalCount = 0;
+    private long Sum = 0;
+    private int Min = Integer.MAX_VALUE;
+    private int Max = 0;
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(int value) {
+        if (value < 0) value = 0;
+        Counts[index(value)]++;
+        TotalCount++;
+        Sum += value;
+        if (value < Min) Min = value;
+        if (value > Max) Max = value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++)
+            Counts[i] += other.Counts[i];
+        TotalCount += other.TotalCount;
+        Sum += other.Sum;
+        Min = Math.min(Min, other.Min);
+        Max = Math.max(Max, other.Max);
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(Counts, 0);
+        TotalCount = 0;
+        Sum = 0;
+        Min = Integer.MAX_VALUE;
+        Max = 0;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {return TotalCount;}
+
+    /**
+     * Returns the exact mean of the recorded values.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {return TotalCount == 0 ? 0 : (double) Sum / TotalCount;}
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the minimum, or 0 if nothing was recorded
+     */
+    public int getMin() {return TotalCount == 0 ? 0 : Min;}
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    public int getMax() {return Max;}
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values fall. The result is the
+     * upper end of the bucket holding that value, capped at the maximum.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public int getValueAtPercentile(double percentile) {
+        if (TotalCount == 0) return 0;
+        long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100.0 * TotalCount);
+        rank = Math.max(rank, 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += Counts[i];
+            if (seen >= rank) return (int) Math.min(highestValue(i), Max);
+        }
+        return Max;
+    }
+
+    /**
+     * Returns the number of buckets and the count in every bucket, so the histogram can be sent elsewhere and
+     * rebuilt with fromCounts().
+     *
+     * @return a copy of the bucket counts
+     */
+    public long[] getCounts() {return Counts.clone();}
+
+    /**
+     * Returns the exact sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public long getSum() {return Sum;}
+
+    /**
+     * Rebuilds a histogram from the bucket counts, sum, minimum and maximum of another one.
+     *
+     * @param counts the bucket counts returned by getCounts()
+     * @param sum the sum of the recorded values
+     * @param min the smallest recorded value
+     * @param max the largest recorded value
+     * @return the rebuilt histogram
+     */
+    public static LatencyHistogram fromCounts(long[] counts, long sum, int min, int max) {
+        if (counts.length != BUCKETS)
+            throw new IllegalArgumentException("Expected " + BUCKETS + " buckets, got " + counts.length);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.Counts[i] = counts[i];
+            histogram.TotalCount += counts[i];
+        }
+        histogram.Sum = sum;
+        histogram.Min = histogram.TotalCount == 0 ? Integer.MAX_VALUE : min;
+        histogram.Max = max;
+        return histogram;
+    }
+
+    // Values below SUB_BUCKETS map to themselves; above that, the top PRECISION bits of the value pick the bucket
+    private static int index(int value) {
+        if (value < SUB_BUCKETS) return value;
+        int shift = (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value)) - (PRECISION - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + ((value >>> shift) - HALF);
+    }
+
+    // Largest value that falls in the given bucket
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long top = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+/**
+ * Multilevel Feedback Queue: every level is a Round-Robin queue with its own quantum, and a level only runs when
+ * all higher levels are empty. New processes enter the top level; a process that uses up its whole quantum moves
+ * down one level, so short and interactive processes finish first and long ones sink. An arrival on a higher
+ * level preempts a process running on a lower one, which keeps its level and goes to the back of its queue.
+ * The last level may have an unlimited quantum, making it First Come First Served.
+ */
+public class MLFQPolicy implements SchedulingPolicy {
+    private final int[] Quanta;                 // Quantum of every level, the top level first
+    private IntQueue[] Levels;                  // Waiting processes of every level in turn order
+    private int[] LevelOfRow = new int[16];     // Level each process is on
+    private int Size;
+    private int Dispatched = -1;                // Row last returned by next(), the running process if any
+
+    /**
+     * Constructs a policy with three levels with quanta of one, two and an unlimited number of the given quantum.
+     *
+     * @param quantum the quantum of the top level, at least 1
+     */
+    public MLFQPolicy(int quantum) {
+        this(quantum, quantum > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : quantum * 2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a policy with one level per given quantum.
+     *
+     * @param quanta the quantum of every level, the top level first; Integer.MAX_VALUE for an unlimited one
+     */
+    public MLFQPolicy(int... quanta) {
+        if (quanta.length == 0) throw new IllegalArgumentException("At least one level is needed");
+        for (int quantum : quanta)
+            if (quantum < 1) throw new IllegalArgumentException("The quantum must be at least 1: " + quantum);
+        Quanta = quanta.clone();
+    }
+
+    @Override
+    public String getName() {
+        StringBuilder sb = new StringBuilder("MLFQ(");
+        for (int i = 0; i < Quanta.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(Quanta[i] == Integer.MAX_VALUE ? "inf" : Integer.toString(Quanta[i]));
+        }
+        return sb.append(')').toString();
+    }
+
+    @Override
+    public void reset(ProcessTable table) {
+        Levels = new IntQueue[Quanta.length];
+        for (int i = 0; i < Levels.length; i++)
+            Levels[i] = new IntQueue(16);
+        Size = 0;
+        Dispatched = -1;
+    }
+
+    @Override
+    public void arrived(int row) {
+        ensureRow(row);
+        LevelOfRow[row] = 0;
+        enqueue(row);
+    }
+
+    @Override
+    public void preempted(int row) {enqueue(row);}
+
+    @Override
+    public void expired(int row) {
+        LevelOfRow[row] = Math.min(LevelOfRow[row] + 1, Quanta.length - 1);
+        enqueue(row);
+    }
+
+    @Override
+    public int next() {
+        Size--;
+        Dispatched = Levels[topLevel()].poll();
+        return Dispatched;
+    }
+
+    @Override
+    public boolean preempts(int running) {return topLevel() < LevelOfRow[running];}
+
+    @Override
+    public int getTimeSlice(int row) {return Quanta[LevelOfRow[row]];}
+
+    @Override
+    public boolean isEmpty() {return Size == 0;}
+
+    @Override
+    public int size() {return Size;}
+
+    @Override
+    public State saveState() {
+        int[][] levels = new int[Levels.length][];
+        for (int i = 0; i < Levels.length; i++)
+            levels[i] = Levels[i].toArray();
+        return new LevelState(levels, Dispatched, Dispatched == -1 ? 0 : LevelOfRow[Dispatched]);
+    }
+
+    @Override
+    public void restoreState(State state) {
+        LevelState saved = (LevelState) state;
+        Size = 0;
+        for (int i = 0; i < Levels.length; i++) {
+            Levels[i].clear();
+            for (int row : saved.Levels[i]) {
+                ensureRow(row);
+                LevelOfRow[row] = i;
+                enqueue(row);
+            }
+        }
+        Dispatched = saved.Dispatched;
+        if (Dispatched != -1) {
+            ensureRow(Dispatched);
+            LevelOfRow[Dispatched] = saved.DispatchedLevel;
+        }
+    }
+
+    private void ensureRow(int row) {
+        if (row >= LevelOfRow.length) LevelOfRow = Arrays.copyOf(LevelOfRow, Math.max(row + 1, LevelOfRow.length * 2));
+    }
+
+    private void enqueue(int row) {
+        Levels[LevelOfRow[row]].add(row);
+        Size++;
+    }
+
+    // Highest level with a waiting process; the number of levels is a small constant
+    private int topLevel() {
+        for (int i = 0; i < Levels.length; i++)
+            if (!Levels[i].isEmpty()) return i;
+        return -1;
+    }
+
+    // Waiting rows of every level in turn order, and the level of the row that was last dispatched
+    private static final class LevelState implements State {
+        final int[][] Levels;
+        final int Dispatched, DispatchedLevel;
+
+        LevelState(int[][] levels, int dispatched, int dispatchedLevel) {
+            Levels = levels;
+            Dispatched = dispatched;
+            DispatchedLevel = dispatchedLevel;
+        }
+
+        @Override
+        public int[] getWaiting() {
+            int size = 0;
+            for (int[] level : Levels)
+                size += level.length;
+            int[] rows = new int[size];
+            size = 0;
+            for (int[] level : Levels) {
+                System.arraycopy(level, 0, rows, size, level.length);
+                size += level.length;
+            }
+            return rows;
+        }
+    }
+}
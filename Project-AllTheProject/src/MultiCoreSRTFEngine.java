@@ -0,0 +1,333 @@
+import java.util.Arrays;
+/**
+ * Event-driven SRTF (Shortest Remaining Time First) simulation on a number of identical CPU cores.
+ * At any time the processes with the shortest remaining times run, one per core. A waiting process preempts the
+ * running process with the longest remaining time when it is strictly shorter, and a preempted process may later
+ * resume on a different core (a migration). Like a SchedulingEngine with an SRTFPolicy, processes are handed over
+ * in nondecreasing arrival time and decisions at time t are made once no more processes can arrive at t.
+ *
+ * All running processes advance at the same rate, so they are ordered by their finishing time instead of their
+ * remaining time: one heap gives the next completion and a second, reversed one gives the preemption victim.
+ * Dispatching, preemption and completion therefore cost O(log n) whatever the number of cores. A core that
+ * becomes free simply takes the shortest waiting process, which is what a work-stealing dispatcher converges to
+ * when every core shares one ready set.
+ */
+public class MultiCoreSRTFEngine {
+    private final ProcessTable Table;
+    private final int Cores;
+    private final ReadyHeap WaitingQueue;       // Waiting processes ordered by remaining time
+    private final ReadyHeap RunningByFinish;    // Running processes, earliest finishing time first
+    private final ReadyHeap RunningByLatest;    // Running processes, latest finishing time first
+    private CompletionListener Listener;
+    private GanttChart[] Lanes;                 // One Gantt chart per core, null if nothing is recorded
+    private SchedulingMetrics Metrics;          // Updated at every dispatch and termination, may be null
+    private SchedulerProbe Probe;               // Live instrumentation, null when it is off
+
+    private final int[] CoreProcess;            // Row running on each core, -1 if the core is free
+    private final int[] FreeCores;              // Stack of free cores, the most recently freed on top
+    private int NumOfFreeCores;
+    private final boolean[] LaneIdle;           // The lane of the core already shows an idle segment
+    private final long[] BusyTime;              // Total time each core has executed processes
+    private final int[] SegmentStart;           // Time the process on each core was dispatched
+    private final int[] FreeSince;              // Time each free core was last freed
+
+    private int[] CoreOfRow = new int[16];      // Core a running row is on
+    private int[] LastCoreOfRow = new int[16];  // Core a row last ran on, -1 if it never ran
+    private long[] RankOfRow = new long[16];    // Tie-break rank of each running row
+
+    private int Threshold = 0;                  // How much shorter a waiting process must be to preempt
+    private int CurrentTime = 0;
+    private long Arrivals = 0, Dispatches = 0, Preemptions = 0, Migrations = 0;
+    private int Completed = 0;
+
+    /**
+     * Constructs an engine that schedules rows of the given table on the given number of cores.
+     *
+     * @param table the process table the rows belong to
+     * @param cores the number of CPU cores, at least 1
+     */
+    public MultiCoreSRTFEngine(ProcessTable table, int cores) {
+        if (cores < 1) throw new IllegalArgumentException("The number of cores must be at least 1: " + cores);
+        Table = table;
+        Cores = cores;
+        WaitingQueue = new ReadyHeap(table.size());
+        RunningByFinish = new ReadyHeap(table.size());
+        RunningByLatest = new ReadyHeap(table.size());
+        CoreProcess = new int[cores];
+        FreeCores = new int[cores];
+        LaneIdle = new boolean[cores];
+        BusyTime = new long[cores];
+        SegmentStart = new int[cores];
+        FreeSince = new int[cores];
+        Arrays.fill(CoreProcess, -1);
+        // Core 0 ends up on top of the stack, so it is used first
+        for (int c = 0; c < cores; c++)
+            FreeCores[c] = cores - 1 - c;
+        NumOfFreeCores = cores;
+    }
+
+    /**
+     * Sets the listener that is notified when a process terminates.
+     *
+     * @param listener the completion listener, or null for none
+     */
+    public void setCompletionListener(CompletionListener listener) {Listener = listener;}
+
+    /**
+     * Sets the metrics collector that is updated as the schedule runs. The idle time of the cores that are free
+     * at the end is added by drain().
+     *
+     * @param metrics the metrics collector, or null for none
+     */
+    public void setMetrics(SchedulingMetrics metrics) {Metrics = metrics;}
+
+    /**
+     * Sets the probe that live instrumentation is reported to.
+     *
+     * @param probe the probe, or null to turn instrumentation off
+     */
+    public void setProbe(SchedulerProbe probe) {Probe = probe;}
+
+    /**
+     * Sets the preemption threshold: a waiting process only preempts a running one when its remaining time is
+     * shorter by more than the threshold. The default is 0.
+     *
+     * @param threshold the preemption threshold, not negative
+     */
+    public void setPreemptionThreshold(int threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("The preemption threshold must not be negative: " + threshold);
+        Threshold = threshold;
+    }
+
+    /**
+     * Enables or disables recording one Gantt chart lane per core.
+     *
+     * @param record true to record the lanes
+     */
+    public void setRecordGantt(boolean record) {
+        if (!record) {
+            Lanes = null;
+            return;
+        }
+        Lanes = new GanttChart[Cores];
+        for (int c = 0; c < Cores; c++)
+            Lanes[c] = new GanttChart();
+    }
+
+    /**
+     * Returns the Gantt chart lanes, one per core. The lanes are complete once drain() has returned.
+     *
+     * @return the lanes, or null if recording is off
+     */
+    public GanttChart[] getLanes() {return Lanes;}
+
+    /**
+     * Returns the number of cores.
+     *
+     * @return the number of cores
+     */
+    public int getCores() {return Cores;}
+
+    /**
+     * Returns the current simulated time.
+     *
+     * @return the current simulated time
+     */
+    public int getCurrentTime() {return CurrentTime;}
+
+    /**
+     * Returns the number of processes that have terminated.
+     *
+     * @return the number of completed processes
+     */
+    public int getCompleted() {return Completed;}
+
+    /**
+     * Returns the number of times a running process was preempted.
+     *
+     * @return the number of preemptions
+     */
+    public long getPreemptions() {return Preemptions;}
+
+    /**
+     * Returns the number of times a process resumed on a different core from the one it last ran on.
+     *
+     * @return the number of migrations
+     */
+    public long getMigrations() {return Migrations;}
+
+    /**
+     * Returns the time a core has spent executing processes.
+     *
+     * @param core the core
+     * @return the busy time of the core
+     */
+    public long getBusyTime(int core) {
+        long busy = BusyTime[core];
+        if (CoreProcess[core] != -1) busy += CurrentTime - SegmentStart[core];
+        return busy;
+    }
+
+    /**
+     * Returns the fraction of the elapsed time a core has spent executing processes.
+     *
+     * @param core the core
+     * @return the utilisation of the core, between 0 and 1
+     */
+    public double getUtilisation(int core) {
+        return CurrentTime == 0 ? 0 : (double) getBusyTime(core) / CurrentTime;
+    }
+
+    /**
+     * Hands a process to the engine. Its arrival time must not be earlier than the current time, and the
+     * simulation is advanced to that arrival time first.
+     *
+     * @param row the row of the process in the table
+     */
+    public void arrive(int row) {
+        int at = Table.getArrivalTime(row);
+        if (at < CurrentTime)
+            throw new IllegalArgumentException("Arrival time " + at + " is before the current time " + CurrentTime);
+        advanceTo(at);
+        if (row >= CoreOfRow.length) grow(Math.max(row + 1, CoreOfRow.length * 2));
+        LastCoreOfRow[row] = -1;
+        WaitingQueue.add(row, Table.getRemainingTime(row), Arrivals++);
+    }
+
+    /**
+     * Simulates every event before the given time. The decision at the given time itself is left open, since
+     * more processes may still arrive then.
+     *
+     * @param time the time to advance to
+     */
+    public void advanceTo(int time) {
+        while (CurrentTime < time) {
+            decide();
+            if (RunningByFinish.isEmpty()) {
+                CurrentTime = time;
+                return;
+            }
+            CurrentTime = Math.min(RunningByFinish.getKey(RunningByFinish.peekMin()), time);
+            complete();
+        }
+    }
+
+    /**
+     * Runs every process that has arrived to completion.
+     */
+    public void drain() {
+        while (!RunningByFinish.isEmpty() || !WaitingQueue.isEmpty()) {
+            decide();
+            CurrentTime = RunningByFinish.getKey(RunningByFinish.peekMin());
+            complete();
+        }
+        if (Lanes != null)
+            for (GanttChart lane : Lanes)
+                lane.setEndTime(CurrentTime);
+        if (Metrics != null)
+            for (int i = 0; i < NumOfFreeCores; i++) {
+                Metrics.recordIdle(CurrentTime - FreeSince[FreeCores[i]]);
+                FreeSince[FreeCores[i]] = CurrentTime;
+            }
+        if (Probe != null)
+            Probe.publish(CurrentTime, 0);
+    }
+
+    // Fill the free cores with the shortest waiting processes, then preempt while a waiting process is shorter
+    // than the longest running one by more than the threshold
+    private void decide() {
+        while (NumOfFreeCores > 0 && !WaitingQueue.isEmpty()) {
+            int core = FreeCores[--NumOfFreeCores];
+            if (Metrics != null) Metrics.recordIdle(CurrentTime - FreeSince[core]);
+            dispatch(WaitingQueue.removeMin(), core, -1);
+        }
+
+        while (!WaitingQueue.isEmpty() && !RunningByLatest.isEmpty()
+                && (long) WaitingQueue.getKey(WaitingQueue.peekMin()) + Threshold < remaining(RunningByLatest.peekMin())) {
+            int victim = RunningByLatest.peekMin();
+            int core = CoreOfRow[victim];
+            vacate(victim);
+            WaitingQueue.add(victim, Table.getRemainingTime(victim), RankOfRow[victim]);
+            Preemptions++;
+            if (Metrics != null) Metrics.recordPreemption();
+            dispatch(WaitingQueue.removeMin(), core, victim);
+        }
+
+        // Cores that are still free from this time on get an idle segment in their lane
+        if (Lanes != null)
+            for (int i = NumOfFreeCores - 1; i >= 0 && !LaneIdle[FreeCores[i]]; i--) {
+                Lanes[FreeCores[i]].addIdle(CurrentTime);
+                LaneIdle[FreeCores[i]] = true;
+            }
+    }
+
+    // Put a row on a core; victim is the row it preempts, or -1 if the core was free
+    private void dispatch(int row, int core, int victim) {
+        long end = (long) CurrentTime + Table.getRemainingTime(row);
+        if (end > Integer.MAX_VALUE)
+            throw new ArithmeticException("The schedule does not end by time " + Integer.MAX_VALUE);
+        int finish = (int) end;
+        long rank = -(++Dispatches);
+        RankOfRow[row] = rank;
+        CoreOfRow[row] = core;
+        RunningByFinish.add(row, finish, rank);
+        RunningByLatest.add(row, -finish, -rank);
+        CoreProcess[core] = row;
+        SegmentStart[core] = CurrentTime;
+        if (LastCoreOfRow[row] != -1 && LastCoreOfRow[row] != core)
+            Migrations++;
+        LastCoreOfRow[row] = core;
+        if (Metrics != null) Metrics.recordContextSwitch();
+        if (Probe != null)
+            Probe.dispatched(Table.getProcessID(row), victim == -1 ? -1 : Table.getProcessID(victim),
+                    CurrentTime, WaitingQueue.size());
+        if (Lanes != null) {
+            Lanes[core].add(CurrentTime, Table.getProcessID(row));
+            LaneIdle[core] = false;
+        }
+        if (Table.getStartingTime(row) == -1)
+            Table.setStartingTime(row, CurrentTime);
+    }
+
+    // Take a running process off its core and store its remaining time back into the table
+    private void vacate(int row) {
+        int core = CoreOfRow[row];
+        Table.setRemainingTime(row, remaining(row));
+        RunningByFinish.remove(row);
+        RunningByLatest.remove(row);
+        BusyTime[core] += CurrentTime - SegmentStart[core];
+        CoreProcess[core] = -1;
+    }
+
+    // Terminate every running process that finishes at the current time and free its core
+    private void complete() {
+        while (!RunningByFinish.isEmpty() && RunningByFinish.getKey(RunningByFinish.peekMin()) == CurrentTime) {
+            int row = RunningByFinish.peekMin();
+            int core = CoreOfRow[row];
+            vacate(row);
+            FreeCores[NumOfFreeCores++] = core;
+            FreeSince[core] = CurrentTime;
+            Table.setFinishingTime(row, CurrentTime);
+            Completed++;
+            if (Metrics != null) {
+                int at = Table.getArrivalTime(row);
+                Metrics.recordCompletion(Table.getProcessID(row), CurrentTime - at,
+                        CurrentTime - at - Table.getBurstTime(row), Table.getStartingTime(row) - at);
+            }
+            if (Probe != null)
+                Probe.completed(Table.getProcessID(row), CurrentTime, WaitingQueue.size());
+            if (Listener != null)
+                Listener.processCompleted(new Process(Table, row));
+        }
+    }
+
+    private int remaining(int row) {
+        return RunningByFinish.getKey(row) - CurrentTime;
+    }
+
+    private void grow(int capacity) {
+        CoreOfRow = Arrays.copyOf(CoreOfRow, capacity);
+        LastCoreOfRow = Arrays.copyOf(LastCoreOfRow, capacity);
+        RankOfRow = Arrays.copyOf(RankOfRow, capacity);
+    }
+}
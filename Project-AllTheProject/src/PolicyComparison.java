@@ -0,0 +1,127 @@
+import java.util.List;
+/**
+ * Runs several scheduling policies side by side over the same stream of processes. Every submitted process is
+ * handed to one StreamingScheduler per policy, so a trace is read once however many policies are compared, and
+ * only the SchedulingMetrics of each policy are kept.
+ */
+public class PolicyComparison {
+    private final SchedulingPolicy[] Policies;
+    private final StreamingScheduler[] Schedulers;
+
+    /**
+     * Constructs a comparison of the given policies.
+     *
+     * @param policies the policies to compare, each a new instance
+     */
+    public PolicyComparison(List<SchedulingPolicy> policies) {
+        if (policies.isEmpty()) throw new IllegalArgumentException("At least one policy is needed");
+        Policies = policies.toArray(new SchedulingPolicy[0]);
+        Schedulers = new StreamingScheduler[Policies.length];
+        for (int i = 0; i < Policies.length; i++)
+            Schedulers[i] = new StreamingScheduler(Policies[i], process -> {});
+    }
+
+    /**
+     * Sets the simulated time each context switch takes under every policy. The default is 0.
+     *
+     * @param cost the switch cost, not negative
+     */
+    public void setContextSwitchCost(int cost) {
+        for (StreamingScheduler scheduler : Schedulers)
+            scheduler.setContextSwitchCost(cost);
+    }
+
+    /**
+     * Submits a process to every policy.
+     *
+     * @param id the ID of the process
+     * @param at the arrival time, must not be earlier than the previous arrival
+     * @param bt the burst time, must be greater than 0
+     */
+    public void submit(int id, int at, int bt) {
+        for (StreamingScheduler scheduler : Schedulers)
+            scheduler.submit(id, at, bt);
+    }
+
+    /**
+     * Runs every submitted process to completion under every policy.
+     */
+    public void finish() {
+        for (StreamingScheduler scheduler : Schedulers)
+            scheduler.finish();
+    }
+
+    /**
+     * Returns the number of policies compared.
+     *
+     * @return the number of policies
+     */
+    public int size() {return Policies.length;}
+
+    /**
+     * Returns a compared policy.
+     *
+     * @param index the position of the policy in the list given to the constructor
+     * @return the policy
+     */
+    public SchedulingPolicy getPolicy(int index) {return Policies[index];}
+
+    /**
+     * Returns the metrics of a compared policy.
+     *
+     * @param index the position of the policy in the list given to the constructor
+     * @return the metrics of the processes that have terminated under the policy
+     */
+    public SchedulingMetrics getMetrics(int index) {return Schedulers[index].getMetrics();}
+
+    /**
+     * Returns the time at which the last process terminated under a compared policy, once finish() has run.
+     *
+     * @param index the position of the policy in the list given to the constructor
+     * @return the completion time under the policy
+     */
+    public int getCompletionTime(int index) {return Schedulers[index].getCurrentTime();}
+
+    /**
+     * Returns the throughput under a compared policy once finish() has run: the number of processes completed per
+     * second of simulated time, taking a time unit as one millisecond.
+     *
+     * @param index the position of the policy in the list given to the constructor
+     * @return the throughput in processes per second
+     */
+    public double getThroughput(int index) {
+        int end = getCompletionTime(index);
+        return end == 0 ? 0 : getMetrics(index).getCompleted() * 1000.0 / end;
+    }
+
+    /**
+     * Returns a table with one row per policy: the mean and p99 turnaround time, the p99 waiting and response
+     * times, the number of context switches and the throughput. Together they show what a policy trades between
+     * latency and switching overhead.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\n======================================================================\n");
+        sb.append("=                Comparison Of Scheduling Policies (ms):             =\n");
+        sb.append("======================================================================\n");
+        sb.append(String.format("%-2s %-13s %-13s %-7s %-8s %-8s %-10s %-1s\n",
+                "=", "Policy", "Turnaround", "Waiting", "Response", "Switches", "Jobs/s", "="));
+        sb.append(String.format("%-2s %-13s %-13s %-7s %-8s %-8s %-10s %-1s\n",
+                "=", "", "mean / p99", "p99", "p99", "", "", "="));
+        sb.append("======================================================================\n");
+        for (int i = 0; i < Policies.length; i++) {
+            SchedulingMetrics metrics = getMetrics(i);
+            sb.append(String.format("%-2s %-13s %-13s %-7d %-8d %-8d %-10s %-1s\n", "=", Policies[i].getName(),
+                    meanAndTail(metrics.getTurnAroundTime()), metrics.getWaitingTime().getValueAtPercentile(99),
+                    metrics.getResponseTime().getValueAtPercentile(99), metrics.getContextSwitches(),
+                    Math.round(getThroughput(i) * 10.0) / 10.0, "="));
+        }
+        sb.append("======================================================================\n");
+        return sb.toString();
+    }
+
+    private static String meanAndTail(LatencyHistogram histogram) {
+        return Math.round(histogram.getMean() * 10.0) / 10.0 + " / " + histogram.getValueAtPercentile(99);
+    }
+}
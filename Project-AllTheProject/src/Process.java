@@ -1,23 +1,14 @@
 /**
  * Represents a process with an ID, arrival time, and burst time.
  * Keeps track of the process's execution and scheduling information.
+ * A Process is a lightweight view over one row of a ProcessTable; a process created on its own gets a
+ * single-row table of its own.
  *
  * @author Mahmood
  */
 public class Process {
-    private final int ProcessID;
-    private final int ArrivalTime;
-    private final int BurstTime;
-
-    private int ResponseTime = -1;
-    private int TurnAroundTime = -1;
-    private int WaitingTime = 0;
-
-    private boolean Terminate = false;
-    private int ExecutedTime = 0;
-    private int StartingTime = -1;
-    private int FinishingTime;
-    private int RemainingTime;
+    private final ProcessTable Table;
+    private final int Row;
 
     /**
      * Constructs a new process with the specified ID, arrival time, and burst time.
@@ -27,133 +18,164 @@ public class Process {
      * @param BurstTime the burst (execution) time of the process
      */
     public Process(int ID, int ArrivalTime, int BurstTime){
-        ProcessID = ID;
-        this.ArrivalTime = ArrivalTime;
-        this.BurstTime = BurstTime;
+        Table = new ProcessTable(1);
+        Row = Table.add(ID, ArrivalTime, BurstTime);
+    }
+
+    /**
+     * Constructs a view over an existing row of a process table. Changes made through the view are written to
+     * the table.
+     *
+     * @param table the process table
+     * @param row the row of the process in the table
+     */
+    public Process(ProcessTable table, int row){
+        Table = table;
+        Row = row;
     }
 
+    /**
+     * Returns the row of the process in the process table it is a view over.
+     *
+     * @return the row of the process
+     */
+    public int getRow() {return Row;}
+
     /**
      * Returns the remaining time (burst time - executed time) of the process.
      *
      * @return the remaining time of the process
      */
-    public int getRemainingTime() {return RemainingTime;}
+    public int getRemainingTime() {return Table.getRemainingTime(Row);}
 
     /**
      * Returns the starting time of the process.
      *
      * @return the starting time of the process
      */
-    public int getStartingTime() {return StartingTime;}
+    public int getStartingTime() {return Table.getStartingTime(Row);}
 
     /**
      * Returns the ID of the process.
      *
      * @return the ID of the process
      */
-    public int getProcessID() {return ProcessID;}
+    public int getProcessID() {return Table.getProcessID(Row);}
 
     /**
      * Returns the arrival time of the process.
      *
      * @return the arrival time of the process
      */
-    public int getArrivalTime(){return ArrivalTime;}
+    public int getArrivalTime(){return Table.getArrivalTime(Row);}
 
     /**
      * Returns the burst time of the process.
      *
      * @return the burst time of the process
      */
-    public int getBurstTime() {return BurstTime;}
+    public int getBurstTime() {return Table.getBurstTime(Row);}
 
     /**
      * Returns the executed time of the process.
      *
      * @return the executed time of the process
      */
-    public int getExecutedTime() {return ExecutedTime;}
+    public int getExecutedTime() {return Table.getBurstTime(Row) - Table.getRemainingTime(Row);}
 
     /**
      * Returns the turn-around time of the process.
      *
      * @return the turn-around time of the process
      */
-    public int getTurnAroundTime() {return TurnAroundTime;}
+    public int getTurnAroundTime() {return Table.getTurnAroundTime(Row);}
 
     /**
      * Returns the waiting time of the process.
      *
      * @return the waiting time of the process
      */
-    public int getWaitingTime() {return WaitingTime;}
+    public int getWaitingTime() {return Table.getWaitingTime(Row);}
 
     /**
      * Returns the finishing time of the process.
      *
      * @return the finishing time of the process
      */
-    public int getFinishingTime() {return FinishingTime;}
+    public int getFinishingTime() {return Table.getFinishingTime(Row);}
 
     /**
      * Returns the response time of the process.
      *
      * @return the response time of the process
      */
-    public int getResponseTime() {return ResponseTime;}
+    public int getResponseTime() {return Table.getResponseTime(Row);}
 
     /**
-     * Sets the response time of the process.
+     * Sets the response time of the process. The response time is stored as the starting time
+     * (arrival time + response time).
      *
      * @param response_time the response time of the process
      */
-    public void setResponse_time(int response_time) {this.ResponseTime = response_time;}
+    public void setResponse_time(int response_time) {Table.setStartingTime(Row, getArrivalTime() + response_time);}
 
     /**
-     * Sets the turn-around time of the process.
+     * Sets the turn-around time of the process. The turn-around time is stored as the finishing time
+     * (arrival time + turn-around time).
      *
      * @param turnAroundTime the turn-around time of the process
      */
-    public void setTurnAroundTime(int turnAroundTime) {this.TurnAroundTime = turnAroundTime;}
+    public void setTurnAroundTime(int turnAroundTime) {Table.setFinishingTime(Row, getArrivalTime() + turnAroundTime);}
 
     /**
-     * Sets the waiting time of the process.
+     * Sets the waiting time of the process. The waiting time is stored as the finishing time
+     * (arrival time + burst time + waiting time).
      *
      * @param waitingTime the waiting time of the process
      */
-    public void setWaitingTime(int waitingTime) {this.WaitingTime = waitingTime;}
+    public void setWaitingTime(int waitingTime) {
+        Table.setFinishingTime(Row, getArrivalTime() + getBurstTime() + waitingTime);
+    }
 
     /**
      * Sets the finishing time of the process.
      *
      * @param finishing_time the finishing time of the process
      */
-    public void setFinishing_time(int finishing_time) {this.FinishingTime = finishing_time;}
+    public void setFinishing_time(int finishing_time) {Table.setFinishingTime(Row, finishing_time);}
 
     /**
      * Sets the starting time of the process.
      *
      * @param start the starting time of the process
      */
-    public void setStartingTime(int start) {this.StartingTime = start;}
+    public void setStartingTime(int start) {Table.setStartingTime(Row, start);}
 
     /**
-     * Sets the remaining time (burst time - executed time) of the process.
+     * Sets the remaining time (burst time - executed time) of the process. The remaining time is updated by
+     * setExecutedTime, so this method has nothing left to do and is kept for existing callers.
      */
-    public void setRemainingTime() {RemainingTime = getBurstTime() - getExecutedTime();}
+    public void setRemainingTime() {}
 
     /**
      * Returns a boolean indicating whether the process has terminated (i.e., executed for its entire burst time).
      *
      * @return true if the process has terminated, false otherwise
      */
-    public boolean isTerminate() {return Terminate;}
+    public boolean isTerminate() {return Table.getRemainingTime(Row) == 0;}
 
     /**
      * Increments the executed time of the process by 1, and sets the process to terminate if the executed time equals the burst time.
      */
-    public void setExecutedTime() {
-        ExecutedTime++;
-        if (ExecutedTime == getBurstTime()) Terminate = true;
+    public void setExecutedTime() {setExecutedTime(1);}
+
+    /**
+     * Increments the executed time of the process by the given amount, and sets the process to terminate if the
+     * executed time reaches the burst time.
+     *
+     * @param time the amount of time the process has been executed for
+     */
+    public void setExecutedTime(int time) {
+        Table.setRemainingTime(Row, Math.max(Table.getRemainingTime(Row) - time, 0));
     }
 }
\ No newline at end of file
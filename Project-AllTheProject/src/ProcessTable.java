@@ -0,0 +1,294 @@
+import java.util.Arrays;
+/**
+ * Stores a set of processes in columnar form: one primitive int array per field, one row per process.
+ * Only the ID, arrival time, burst time, remaining time, starting time and finishing time are stored (24 bytes
+ * per process); the executed, turnaround, waiting and response times are derived from them.
+ * A Process object can be used as a lightweight view over a single row.
+ */
+public class ProcessTable {
+    private int[] ProcessID;
+    private int[] ArrivalTime;
+    private int[] BurstTime;
+    private int[] RemainingTime;
+    private int[] StartingTime;     // -1 until the process is dispatched for the first time
+    private int[] FinishingTime;    // -1 until the process terminates
+    private int Size;
+
+    /**
+     * Constructs an empty process table with room for the given number of processes before it needs to grow.
+     *
+     * @param capacity the initial number of rows
+     */
+    public ProcessTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        ProcessID = new int[capacity];
+        ArrivalTime = new int[capacity];
+        BurstTime = new int[capacity];
+        RemainingTime = new int[capacity];
+        StartingTime = new int[capacity];
+        FinishingTime = new int[capacity];
+        Size = 0;
+    }
+
+    /**
+     * Returns the number of processes in the table.
+     *
+     * @return the number of rows in the table
+     */
+    public int size() {return Size;}
+
+    /**
+     * Appends a new process to the table. Its remaining time is set to the burst time.
+     *
+     * @param id the process ID
+     * @param at the arrival time of the process
+     * @param bt the burst time of the process
+     * @return the row of the new process
+     */
+    public int add(int id, int at, int bt) {
+        if (Size == ProcessID.length) grow(Size * 2);
+        ProcessID[Size] = id;
+        ArrivalTime[Size] = at;
+        BurstTime[Size] = bt;
+        RemainingTime[Size] = bt;
+        StartingTime[Size] = -1;
+        FinishingTime[Size] = -1;
+        return Size++;
+    }
+
+    /**
+     * Grows the table so that it can hold the given number of processes without reallocating.
+     *
+     * @param capacity the number of rows needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > ProcessID.length) grow(capacity);
+    }
+
+    /**
+     * Overwrites an existing row with a new process, so the rows of finished processes can be reused.
+     *
+     * @param row the row to overwrite
+     * @param id the process ID
+     * @param at the arrival time of the process
+     * @param bt the burst time of the process
+     */
+    public void set(int row, int id, int at, int bt) {
+        ProcessID[row] = id;
+        ArrivalTime[row] = at;
+        BurstTime[row] = bt;
+        RemainingTime[row] = bt;
+        StartingTime[row] = -1;
+        FinishingTime[row] = -1;
+    }
+
+    /**
+     * Removes every process from the table, keeping the allocated capacity.
+     */
+    public void clear() {Size = 0;}
+
+    /**
+     * Swaps two rows of the table.
+     *
+     * @param i the first row
+     * @param j the second row
+     */
+    public void swap(int i, int j) {
+        swap(ProcessID, i, j);
+        swap(ArrivalTime, i, j);
+        swap(BurstTime, i, j);
+        swap(RemainingTime, i, j);
+        swap(StartingTime, i, j);
+        swap(FinishingTime, i, j);
+    }
+
+    /**
+     * Reorders the rows by ascending arrival time. Rows with the same arrival time keep their current order.
+     *
+     * @return the order that was applied, as given to permute()
+     */
+    public int[] sortByArrivalTime() {return permute(IntSort.sortedOrder(ArrivalTime, Size));}
+
+    /**
+     * Reorders the rows by ascending process ID. Rows with the same ID keep their current order.
+     *
+     * @return the order that was applied, as given to permute()
+     */
+    public int[] sortByProcessID() {return permute(IntSort.sortedOrder(ProcessID, Size));}
+
+    /**
+     * Removes a row, moving the rows after it up by one.
+     *
+     * @param row the row to remove
+     */
+    public void remove(int row) {
+        int moved = Size - row - 1;
+        System.arraycopy(ProcessID, row + 1, ProcessID, row, moved);
+        System.arraycopy(ArrivalTime, row + 1, ArrivalTime, row, moved);
+        System.arraycopy(BurstTime, row + 1, BurstTime, row, moved);
+        System.arraycopy(RemainingTime, row + 1, RemainingTime, row, moved);
+        System.arraycopy(StartingTime, row + 1, StartingTime, row, moved);
+        System.arraycopy(FinishingTime, row + 1, FinishingTime, row, moved);
+        Size--;
+    }
+
+    /**
+     * Reorders the rows so that row order[i] moves to position i.
+     *
+     * @param order the new order of the rows, a permutation of 0 to size() - 1
+     * @return the given order
+     */
+    public int[] permute(int[] order) {
+        // Each column is gathered into a spare array, and the old column becomes the spare for the next one
+        int[] spare = new int[ProcessID.length], old;
+        old = ProcessID;     ProcessID = gather(old, order, spare);     spare = old;
+        old = ArrivalTime;   ArrivalTime = gather(old, order, spare);   spare = old;
+        old = BurstTime;     BurstTime = gather(old, order, spare);     spare = old;
+        old = RemainingTime; RemainingTime = gather(old, order, spare); spare = old;
+        old = StartingTime;  StartingTime = gather(old, order, spare);  spare = old;
+        FinishingTime = gather(FinishingTime, order, spare);
+        return order;
+    }
+
+    /**
+     * Resets the remaining, starting and finishing times of every row so the processes can be scheduled again.
+     */
+    public void reset() {
+        reset(0);
+    }
+
+    /**
+     * Resets the remaining, starting and finishing times of the rows from the given row on, so they can be
+     * scheduled again while the rows before it keep their times.
+     *
+     * @param from the first row to reset
+     */
+    public void reset(int from) {
+        System.arraycopy(BurstTime, from, RemainingTime, from, Size - from);
+        Arrays.fill(StartingTime, from, Size, -1);
+        Arrays.fill(FinishingTime, from, Size, -1);
+    }
+
+    /**
+     * Returns the ID of the process in a row.
+     *
+     * @param row the row
+     * @return the ID of the process
+     */
+    public int getProcessID(int row) {return ProcessID[row];}
+
+    /**
+     * Returns the arrival time of the process in a row.
+     *
+     * @param row the row
+     * @return the arrival time of the process
+     */
+    public int getArrivalTime(int row) {return ArrivalTime[row];}
+
+    /**
+     * Returns the burst time of the process in a row.
+     *
+     * @param row the row
+     * @return the burst time of the process
+     */
+    public int getBurstTime(int row) {return BurstTime[row];}
+
+    /**
+     * Returns the remaining time (burst time - executed time) of the process in a row.
+     *
+     * @param row the row
+     * @return the remaining time of the process
+     */
+    public int getRemainingTime(int row) {return RemainingTime[row];}
+
+    /**
+     * Returns the starting time of the process in a row, or -1 if it has not started.
+     *
+     * @param row the row
+     * @return the starting time of the process
+     */
+    public int getStartingTime(int row) {return StartingTime[row];}
+
+    /**
+     * Returns the finishing time of the process in a row, or -1 if it has not finished.
+     *
+     * @param row the row
+     * @return the finishing time of the process
+     */
+    public int getFinishingTime(int row) {return FinishingTime[row];}
+
+    /**
+     * Sets the remaining time of the process in a row.
+     *
+     * @param row the row
+     * @param remaining the new remaining time
+     */
+    public void setRemainingTime(int row, int remaining) {RemainingTime[row] = remaining;}
+
+    /**
+     * Sets the starting time of the process in a row.
+     *
+     * @param row the row
+     * @param start the starting time of the process
+     */
+    public void setStartingTime(int row, int start) {StartingTime[row] = start;}
+
+    /**
+     * Sets the finishing time of the process in a row.
+     *
+     * @param row the row
+     * @param finish the finishing time of the process
+     */
+    public void setFinishingTime(int row, int finish) {FinishingTime[row] = finish;}
+
+    /**
+     * Returns the turnaround time (finishing time - arrival time) of a row, or -1 if it has not finished.
+     *
+     * @param row the row
+     * @return the turnaround time of the process
+     */
+    public int getTurnAroundTime(int row) {
+        return FinishingTime[row] == -1 ? -1 : FinishingTime[row] - ArrivalTime[row];
+    }
+
+    /**
+     * Returns the waiting time (turnaround time - burst time) of a row, or 0 if it has not finished.
+     *
+     * @param row the row
+     * @return the waiting time of the process
+     */
+    public int getWaitingTime(int row) {
+        return FinishingTime[row] == -1 ? 0 : FinishingTime[row] - ArrivalTime[row] - BurstTime[row];
+    }
+
+    /**
+     * Returns the response time (starting time - arrival time) of a row, or -1 if it has not started.
+     *
+     * @param row the row
+     * @return the response time of the process
+     */
+    public int getResponseTime(int row) {
+        return StartingTime[row] == -1 ? -1 : StartingTime[row] - ArrivalTime[row];
+    }
+
+    private int[] gather(int[] column, int[] order, int[] into) {
+        for (int i = 0; i < Size; i++)
+            into[i] = column[order[i]];
+        return into;
+    }
+
+    private static void swap(int[] column, int i, int j) {
+        int temp = column[i];
+        column[i] = column[j];
+        column[j] = temp;
+    }
+
+    private void grow(int capacity) {
+        ProcessID = Arrays.copyOf(ProcessID, capacity);
+        ArrivalTime = Arrays.copyOf(ArrivalTime, capacity);
+        BurstTime = Arrays.copyOf(BurstTime, capacity);
+        RemainingTime = Arrays.copyOf(RemainingTime, capacity);
+        StartingTime = Arrays.copyOf(StartingTime, capacity);
+        FinishingTime = Arrays.copyOf(FinishingTime, capacity);
+    }
+}
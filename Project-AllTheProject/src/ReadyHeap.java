@@ -0,0 +1,201 @@
+import java.util.Arrays;
+/**
+ * Indexed binary min-heap over process slots (0, 1, 2, ...) used as the ready set of the scheduler.
+ * Each slot is ordered by its key (the remaining time) and ties are broken by a secondary rank, so the order is
+ * fully deterministic. Because the heap is indexed, the position of every slot is known and decrease-key runs in
+ * O(log n) without searching. All state is held in primitive arrays.
+ */
+public class ReadyHeap {
+    private int[] Heap;         // Heap[i] is the slot stored at heap position i
+    private int[] Position;     // Position[slot] is the heap position of the slot, or -1 if it is not in the heap
+    private int[] Key;          // Key[slot] is the primary key (remaining time) of the slot
+    private long[] Rank;        // Rank[slot] breaks ties between equal keys, lower rank first
+    private int Size;           // Number of slots in the heap
+
+    /**
+     * Constructs an empty heap able to hold the slots 0 to capacity - 1 before it needs to grow.
+     *
+     * @param capacity the initial number of slots
+     */
+    public ReadyHeap(int capacity) {
+        capacity = Math.max(capacity, 1);
+        Heap = new int[capacity];
+        Position = new int[capacity];
+        Key = new int[capacity];
+        Rank = new long[capacity];
+        Arrays.fill(Position, -1);
+        Size = 0;
+    }
+
+    /**
+     * Returns the number of slots in the heap.
+     *
+     * @return the number of slots in the heap
+     */
+    public int size() {return Size;}
+
+    /**
+     * Returns true if the heap is empty, false otherwise.
+     *
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {return Size == 0;}
+
+    /**
+     * Returns true if the given slot is currently in the heap.
+     *
+     * @param slot the slot to check
+     * @return true if the slot is in the heap, false otherwise
+     */
+    public boolean contains(int slot) {return slot < Position.length && Position[slot] != -1;}
+
+    /**
+     * Returns the slot stored at a position of the heap array. Adding the slots of positions 0 to size() - 1 in
+     * that order to an empty heap rebuilds the same heap.
+     *
+     * @param position the heap position, from 0 to size() - 1
+     * @return the slot at that position
+     */
+    public int getSlotAt(int position) {return Heap[position];}
+
+    /**
+     * Returns the key of the given slot.
+     *
+     * @param slot the slot
+     * @return the key of the slot
+     */
+    public int getKey(int slot) {return Key[slot];}
+
+    /**
+     * Inserts a slot with the given key and tie-break rank.
+     *
+     * @param slot the slot to insert, must not already be in the heap
+     * @param key the primary key of the slot
+     * @param rank the tie-break rank of the slot
+     */
+    public void add(int slot, int key, long rank) {
+        if (slot >= Position.length) grow(slot + 1);
+        if (Position[slot] != -1) throw new IllegalStateException("Slot " + slot + " is already in the heap");
+        Key[slot] = key;
+        Rank[slot] = rank;
+        Heap[Size] = slot;
+        Position[slot] = Size;
+        siftUp(Size++);
+    }
+
+    /**
+     * Returns the slot with the smallest key without removing it.
+     *
+     * @return the slot with the smallest key, or -1 if the heap is empty
+     */
+    public int peekMin() {return Size == 0 ? -1 : Heap[0];}
+
+    /**
+     * Removes and returns the slot with the smallest key.
+     *
+     * @return the slot with the smallest key, or -1 if the heap is empty
+     */
+    public int removeMin() {
+        if (Size == 0) return -1;
+        int min = Heap[0];
+        Position[min] = -1;
+        if (--Size > 0) {
+            Heap[0] = Heap[Size];
+            Position[Heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes a slot from anywhere in the heap.
+     *
+     * @param slot the slot to remove
+     * @return true if the slot was removed, false if it was not in the heap
+     */
+    public boolean remove(int slot) {
+        if (!contains(slot)) return false;
+        int i = Position[slot];
+        Position[slot] = -1;
+        if (i != --Size) {
+            // Move the last slot into the gap, then restore the heap order in whichever direction it is broken
+            int moved = Heap[Size];
+            Heap[i] = moved;
+            Position[moved] = i;
+            siftDown(i);
+            if (Position[moved] == i) siftUp(i);
+        }
+        return true;
+    }
+
+    /**
+     * Lowers the key of a slot that is in the heap.
+     *
+     * @param slot the slot to update
+     * @param key the new key, must not be greater than the current key
+     */
+    public void decreaseKey(int slot, int key) {
+        if (key > Key[slot]) throw new IllegalArgumentException("New key " + key + " is greater than " + Key[slot]);
+        Key[slot] = key;
+        siftUp(Position[slot]);
+    }
+
+    /**
+     * Returns the tie-break rank of the given slot.
+     *
+     * @param slot the slot
+     * @return the rank of the slot
+     */
+    public long getRank(int slot) {return Rank[slot];}
+
+    /**
+     * Removes every slot from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < Size; i++)
+            Position[Heap[i]] = -1;
+        Size = 0;
+    }
+
+    private boolean less(int a, int b) {
+        return Key[a] < Key[b] || (Key[a] == Key[b] && Rank[a] < Rank[b]);
+    }
+
+    private void siftUp(int i) {
+        int slot = Heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(slot, Heap[parent])) break;
+            Heap[i] = Heap[parent];
+            Position[Heap[i]] = i;
+            i = parent;
+        }
+        Heap[i] = slot;
+        Position[slot] = i;
+    }
+
+    private void siftDown(int i) {
+        int slot = Heap[i];
+        int half = Size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < Size && less(Heap[child + 1], Heap[child])) child++;
+            if (!less(Heap[child], slot)) break;
+            Heap[i] = Heap[child];
+            Position[Heap[i]] = i;
+            i = child;
+        }
+        Heap[i] = slot;
+        Position[slot] = i;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Position.length * 2);
+        int old = Position.length;
+        Heap = Arrays.copyOf(Heap, capacity);
+        Position = Arrays.copyOf(Position, capacity);
+        Key = Arrays.copyOf(Key, capacity);
+        Rank = Arrays.copyOf(Rank, capacity);
+        Arrays.fill(Position, old, capacity, -1);
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.io.Writer;
+/**
+ * Queryable view over the results of a run, returned by SRTFScheduler.getResults(). Nothing is copied: the
+ * times stay in the scheduler's columnar table, which a run leaves ordered by process ID, so an ID range is
+ * found by binary search. The arrival order of the run is the inverse of the permutation that sorted the table
+ * by ID, so an arrival window is found by binary search as well, and the processes with the worst waiting and
+ * turnaround times come from the bounded heaps the SchedulingMetrics kept during the run.
+ *
+ * A query returns a Selection of rows, which write() streams as a details table through a Writer, one page at a
+ * time if asked, instead of formatting the whole table in memory. The view is only valid until the processes of
+ * the scheduler change.
+ */
+public class ResultStore {
+    private static final String BORDER = "======================================================================\n";
+    private static final String HEADER = String.format("%-2s %-11s %-2s %-13s %-2s %-16s %-2s %-2s %-1s\n",
+            "=", "Process ID", "=", "Waiting Time", "=", "Turnaround Time", "=", "Response Time", '=');
+
+    private final ProcessTable Table;
+    private final int[] IDOrder;            // Arrival position of every row, or null if the table is not ordered by ID
+    private final SchedulingMetrics Metrics;
+    private int[] ArrivalOrder;             // Row of every arrival position, built on the first arrival query
+
+    /**
+     * Rows of the table selected by a query, in the order they are listed.
+     */
+    public static final class Selection {
+        private final int[] Rows;           // Rows to list, or null for the consecutive rows from From
+        private final int From, To;
+
+        Selection(int[] rows, int from, int to) {
+            Rows = rows;
+            From = from;
+            To = Math.max(from, to);
+        }
+
+        /**
+         * Returns the number of selected rows.
+         *
+         * @return the number of rows
+         */
+        public int size() {return To - From;}
+
+        /**
+         * Returns the row at the given position of the selection.
+         *
+         * @param index the position, from 0 to size() - 1
+         * @return the row of the scheduler's table, as used by SRTFScheduler.getProcess()
+         */
+        public int getRow(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Row " + index + " of " + size());
+            return Rows == null ? From + index : Rows[From + index];
+        }
+    }
+
+    /**
+     * Constructs a view over a table.
+     *
+     * @param table the table of the processes
+     * @param idOrder the arrival position of every row of a table ordered by ID, or null if only all() is used
+     * @param metrics the metrics of the run that filled the table
+     */
+    ResultStore(ProcessTable table, int[] idOrder, SchedulingMetrics metrics) {
+        Table = table;
+        IDOrder = idOrder;
+        Metrics = metrics;
+    }
+
+    /**
+     * Returns the number of processes.
+     *
+     * @return the number of processes
+     */
+    public int size() {return Table.size();}
+
+    /**
+     * Selects every process, ordered by ID.
+     *
+     * @return the selection of all processes
+     */
+    public Selection all() {
+        return new Selection(null, 0, Table.size());
+    }
+
+    /**
+     * Selects the processes with an ID in the given range, ordered by ID.
+     *
+     * @param fromID the smallest ID selected
+     * @param toID the largest ID selected
+     * @return the selection
+     */
+    public Selection byID(int fromID, int toID) {
+        checkOrdered();
+        int from = 0, to = Table.size();
+        for (int low = 0, high = Table.size(); low < high; ) {
+            int middle = (low + high) >>> 1;
+            if (Table.getProcessID(middle) < fromID) low = from = middle + 1;
+            else high = middle;
+        }
+        for (int low = from, high = Table.size(); low < high; ) {
+            int middle = (low + high) >>> 1;
+            if (Table.getProcessID(middle) <= toID) low = middle + 1;
+            else high = to = middle;
+        }
+        return new Selection(null, from, to);
+    }
+
+    /**
+     * Selects the processes that arrived in the given window, in the order they arrived.
+     *
+     * @param fromTime the earliest arrival time selected
+     * @param toTime the latest arrival time selected
+     * @return the selection
+     */
+    public Selection byArrival(int fromTime, int toTime) {
+        checkOrdered();
+        if (ArrivalOrder == null) {
+            ArrivalOrder = new int[IDOrder.length];
+            for (int row = 0; row < IDOrder.length; row++)
+                ArrivalOrder[IDOrder[row]] = row;
+        }
+        int from = 0, to = ArrivalOrder.length;
+        for (int low = 0, high = ArrivalOrder.length; low < high; ) {
+            int middle = (low + high) >>> 1;
+            if (Table.getArrivalTime(ArrivalOrder[middle]) < fromTime) low = from = middle + 1;
+            else high = middle;
+        }
+        for (int low = from, high = ArrivalOrder.length; low < high; ) {
+            int middle = (low + high) >>> 1;
+            if (Table.getArrivalTime(ArrivalOrder[middle]) <= toTime) low = middle + 1;
+            else high = to = middle;
+        }
+        return new Selection(ArrivalOrder, from, to);
+    }
+
+    /**
+     * Selects the processes with the longest waiting times, worst first.
+     *
+     * @param k the number of processes, at most the number kept by SchedulingMetrics.setTopK()
+     * @return the selection
+     */
+    public Selection worstWaitingTime(int k) {
+        return worst(Metrics.getWorstWaitingTime(), k);
+    }
+
+    /**
+     * Selects the processes with the longest turnaround times, worst first.
+     *
+     * @param k the number of processes, at most the number kept by SchedulingMetrics.setTopK()
+     * @return the selection
+     */
+    public Selection worstTurnAroundTime(int k) {
+        return worst(Metrics.getWorstTurnAroundTime(), k);
+    }
+
+    /**
+     * Writes the selected processes as a details table with the given title: their ID, waiting time, turnaround
+     * time and response time. The rows are streamed to the writer one at a time; only the rows from the offset
+     * on and up to the limit are written, followed by a line telling which rows were shown if that is not all.
+     *
+     * @param title the title of the table
+     * @param selection the processes to write
+     * @param offset the position in the selection of the first row written
+     * @param limit the largest number of rows written
+     * @param out the writer, which is neither flushed nor closed
+     * @throws IOException if the writer fails
+     */
+    public void write(String title, Selection selection, int offset, int limit, Writer out) throws IOException {
+        int from = Math.min(Math.max(offset, 0), selection.size());
+        int to = (int) Math.min(selection.size(), (long) from + Math.max(limit, 0));
+        int padding = Math.max(68 - title.length(), 0);
+        out.write("\n\n");
+        out.write(BORDER);
+        out.write("=" + " ".repeat(padding / 2) + title + " ".repeat(padding - padding / 2) + "=\n");
+        out.write(BORDER);
+        out.write(HEADER);
+        out.write(BORDER);
+        StringBuilder line = new StringBuilder(80);
+        for (int i = from; i < to; i++) {
+            int row = selection.getRow(i);
+            line.setLength(0);
+            pad(line, "=", 6);
+            pad(line, Integer.toString(Table.getProcessID(row)), 7);
+            pad(line, "=", 7);
+            pad(line, Table.getWaitingTime(row) + " ms", 8);
+            pad(line, "=", 9);
+            pad(line, Table.getTurnAroundTime(row) + " ms", 9);
+            pad(line, "=", 8);
+            pad(line, Table.getResponseTime(row) + " ms", 7);
+            line.append("=\n");
+            out.append(line);
+        }
+        if (from > 0 || to < selection.size()) {
+            out.write(BORDER);
+            out.write(String.format("%-2s %-24s %-40s %-2s\n", "=", "Rows Shown:",
+                    (to == from ? "none" : (from + 1) + " to " + to) + " of " + selection.size(), "="));
+        }
+        out.write(BORDER);
+    }
+
+    // Maps the IDs kept by a heap to rows by binary search over the table ordered by ID
+    private Selection worst(TopKHeap heap, int k) {
+        checkOrdered();
+        if (k > heap.capacity())
+            throw new IllegalArgumentException("Only the worst " + heap.capacity() + " processes are kept, not " + k);
+        int[] ids = heap.getIDs();
+        int[] rows = new int[Math.min(k, ids.length)];
+        for (int i = 0; i < rows.length; i++) {
+            int low = 0, high = Table.size() - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Table.getProcessID(middle) < ids[i]) low = middle + 1;
+                else high = middle;
+            }
+            rows[i] = low;
+        }
+        return new Selection(rows, 0, rows.length);
+    }
+
+    private void checkOrdered() {
+        if (IDOrder == null)
+            throw new IllegalStateException("The processes have not been scheduled since they last changed");
+    }
+
+    // Appends the text and one space after it, left justified in the given width like String.format("%-ns ")
+    private static void pad(StringBuilder line, String text, int width) {
+        line.append(text);
+        for (int i = text.length(); i < width; i++)
+            line.append(' ');
+        line.append(' ');
+    }
+}
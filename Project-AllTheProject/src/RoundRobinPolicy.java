@@ -0,0 +1,62 @@
+/**
+ * Round-Robin: ready processes take turns in arrival order, each running for at most one quantum before it goes
+ * to the back of the queue. A process whose quantum expires at the same time as new processes arrive queues
+ * behind them. The ready set is an IntQueue.
+ */
+public class RoundRobinPolicy implements SchedulingPolicy {
+    private final int Quantum;
+    private IntQueue WaitingQueue;              // Waiting processes in turn order
+
+    /**
+     * Constructs a Round-Robin policy with the given quantum.
+     *
+     * @param quantum the longest time a process runs before the next one gets a turn, at least 1
+     */
+    public RoundRobinPolicy(int quantum) {
+        if (quantum < 1) throw new IllegalArgumentException("The quantum must be at least 1: " + quantum);
+        Quantum = quantum;
+    }
+
+    @Override
+    public String getName() {return "RR(q=" + Quantum + ")";}
+
+    @Override
+    public void reset(ProcessTable table) {WaitingQueue = new IntQueue(16);}
+
+    @Override
+    public void arrived(int row) {WaitingQueue.add(row);}
+
+    @Override
+    public void preempted(int row) {throw new IllegalStateException("Round-Robin only preempts when a quantum expires");}
+
+    @Override
+    public void expired(int row) {WaitingQueue.add(row);}
+
+    @Override
+    public int next() {return WaitingQueue.poll();}
+
+    @Override
+    public boolean preempts(int running) {return false;}
+
+    @Override
+    public int getTimeSlice(int row) {return Quantum;}
+
+    @Override
+    public boolean isEmpty() {return WaitingQueue.isEmpty();}
+
+    @Override
+    public int size() {return WaitingQueue.size();}
+
+    @Override
+    public State saveState() {
+        int[] waiting = WaitingQueue.toArray();
+        return () -> waiting;
+    }
+
+    @Override
+    public void restoreState(State state) {
+        WaitingQueue.clear();
+        for (int row : state.getWaiting())
+            WaitingQueue.add(row);
+    }
+}
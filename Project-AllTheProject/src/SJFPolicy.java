@@ -0,0 +1,80 @@
+/**
+ * Non-preemptive Shortest Job First: whenever the CPU is free the ready process with the shortest burst time
+ * runs to completion. Ties go to the earliest arrival. The ready set is a ReadyHeap keyed by burst time.
+ */
+public class SJFPolicy implements SchedulingPolicy {
+    private ProcessTable Table;
+    private ReadyHeap WaitingQueue;             // Waiting processes ordered by burst time
+    private long Arrivals;
+
+    @Override
+    public String getName() {return "SJF";}
+
+    @Override
+    public void reset(ProcessTable table) {
+        Table = table;
+        WaitingQueue = new ReadyHeap(table.size());
+        Arrivals = 0;
+    }
+
+    @Override
+    public void arrived(int row) {WaitingQueue.add(row, Table.getBurstTime(row), Arrivals++);}
+
+    @Override
+    public void preempted(int row) {throw new IllegalStateException("SJF never preempts");}
+
+    @Override
+    public void expired(int row) {throw new IllegalStateException("SJF has no time slice");}
+
+    @Override
+    public int next() {return WaitingQueue.removeMin();}
+
+    @Override
+    public boolean preempts(int running) {return false;}
+
+    @Override
+    public int getTimeSlice(int row) {return Integer.MAX_VALUE;}
+
+    @Override
+    public boolean isEmpty() {return WaitingQueue.isEmpty();}
+
+    @Override
+    public int size() {return WaitingQueue.size();}
+
+    @Override
+    public State saveState() {
+        int[] rows = new int[WaitingQueue.size()];
+        long[] ranks = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = WaitingQueue.getSlotAt(i);
+            ranks[i] = WaitingQueue.getRank(rows[i]);
+        }
+        return new HeapState(rows, ranks, Arrivals);
+    }
+
+    @Override
+    public void restoreState(State state) {
+        HeapState saved = (HeapState) state;
+        WaitingQueue.clear();
+        // The rows are added in heap order, which rebuilds the same heap
+        for (int i = 0; i < saved.Rows.length; i++)
+            WaitingQueue.add(saved.Rows[i], Table.getBurstTime(saved.Rows[i]), saved.Ranks[i]);
+        Arrivals = saved.Arrivals;
+    }
+
+    // Waiting rows in heap order with their ranks, and the arrival counter
+    private static final class HeapState implements State {
+        final int[] Rows;
+        final long[] Ranks;
+        final long Arrivals;
+
+        HeapState(int[] rows, long[] ranks, long arrivals) {
+            Rows = rows;
+            Ranks = ranks;
+            Arrivals = arrivals;
+        }
+
+        @Override
+        public int[] getWaiting() {return Rows;}
+    }
+}
@@ -4,22 +4,108 @@
  Name: Mohammed Hussain Mahdi               ID: 20194444
  Sec: 1
  */
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import javax.management.JMException;
 /**
  * SRTFMain class contains the main method to run the SRTF (Shortest Remaining Time First) scheduling algorithm.
  *
  * @author Mohammed
  */
 public class SRTFMain {
+    private static final String USAGE = String.join("\n",
+            "Usage: java SRTFMain                                  enter the processes interactively",
+            "       java SRTFMain --trace <file> [options]         schedule a trace file",
+            "       java SRTFMain --generate <count> [options]     schedule a generated workload",
+            "       java SRTFMain --replay <log> --at <time>       query a schedule log by time",
+            "       java SRTFMain --replay <log> --pid <id>        query a schedule log by process",
+            "Options: --gantt <console|csv|binary|none>, --gantt-file <file>, --cores <n>, --instrument <n>,",
+            "         --policy <name>, --compare <name,...>, --switch-cost <n>, --log <file>, --what-if <file>,",
+            "         --checkpoint <n>, --seed <n>, --rate <r>, --bursts <name>, --diurnal <period>:<amplitude>,",
+            "         --write <file>, --threads <n>, --shards <n>, --completions <file>,",
+            "         --query <top:k|ids:from:to|arrivals:from:to>, --page <n>:<size>");
+
     /**
      * The main method is the entry point of the program that runs the SRTF (Shortest Remaining Time First) scheduling
-     * algorithm. It takes input from the user about the process IDs, arrival times, and burst times and then prints a
-     * Gantt chart to show the execution sequence of the processes. It also displays the process details and averages
-     * after the scheduling is completed.
+     * algorithm. Without arguments it takes input from the user about the process IDs, arrival times, and burst times
+     * and then prints a Gantt chart to show the execution sequence of the processes. It also displays the process
+     * details, the averages and the percentiles after the scheduling is completed.
+     *
+     * The other modes are selected by the first argument:
+     * <ul>
+     *   <li>"--trace &lt;file&gt;" loads the processes from a trace file (see TraceLoader) and schedules them once,
+     *   without prompting.</li>
+     *   <li>"--generate &lt;count&gt;" takes the processes from a WorkloadGenerator instead, with the same options
+     *   as the trace mode.</li>
+     *   <li>"--replay &lt;log&gt;" followed by "--at &lt;time&gt;" or "--pid &lt;id&gt;" queries a schedule log for the
+     *   process running at that time or for the times of that process, without scheduling again.</li>
+     * </ul>
+     *
+     * The trace and generate modes take these options:
+     * <ul>
+     *   <li>"--gantt &lt;console|csv|binary|none&gt;" selects how the Gantt chart is rendered and
+     *   "--gantt-file &lt;file&gt;" writes it to a file instead of the console.</li>
+     *   <li>"--cores &lt;n&gt;" schedules the processes on n identical CPU cores.</li>
+     *   <li>"--instrument &lt;n&gt;" registers a SchedulerProbe over JMX that samples one event in every n as
+     *   Flight Recorder events.</li>
+     *   <li>"--policy &lt;name&gt;" schedules with another policy than SRTF (see SchedulingPolicy.forName()).</li>
+     *   <li>"--compare &lt;name,name,...&gt;" only prints how the listed policies compare; comparing
+     *   "srtf:0,srtf:1,srtf:2,..." shows the effect of the SRTF preemption threshold.</li>
+     *   <li>"--switch-cost &lt;n&gt;" charges n time units for every context switch and reports what they cost.</li>
+     *   <li>"--log &lt;file&gt;" also writes the schedule to a binary schedule log.</li>
+     *   <li>"--what-if &lt;file&gt;" adds the processes of a second trace file after the first run and resumes
+     *   from the last checkpoint before the first added arrival; "--checkpoint &lt;n&gt;" takes a checkpoint every
+     *   n time units instead of spreading 64 over the arrivals.</li>
+     *   <li>"--seed &lt;n&gt;", "--rate &lt;r&gt;", "--bursts &lt;name&gt;" (see BurstDistribution.forName()) and
+     *   "--diurnal &lt;period&gt;:&lt;amplitude&gt;" set the seed, the mean arrivals per time unit, the burst time
+     *   distribution and the daily load curve of the generator.</li>
+     *   <li>"--write &lt;file&gt;" writes the generated workload to a binary trace file on "--threads &lt;n&gt;"
+     *   threads instead of scheduling it.</li>
+     *   <li>"--shards &lt;n&gt;" splits the trace over n hosts, each scheduled in its own worker JVM (see
+     *   ShardCoordinator), and "--completions &lt;file&gt;" writes their merged completions to a CSV file.</li>
+     *   <li>"--query &lt;top:k|ids:from:to|arrivals:from:to&gt;" prints only the processes with the k worst times,
+     *   an ID range or an arrival window (see ResultStore), and "--page &lt;n&gt;:&lt;size&gt;" only page n.</li>
+     * </ul>
      *
      * @param args The command line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            Options options;
+            try {
+                options = Options.parse(args);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
+                System.out.println(USAGE);
+                return;
+            }
+            if (options.Mode.equals("--replay")) {
+                replay(Path.of(options.Argument), options.ReplayQuery, options.ReplayValue);
+                return;
+            }
+            WorkloadGenerator generator = null;
+            if (options.Mode.equals("--generate")) {
+                generator = generator(options);
+                if (generator == null) return;
+                if (options.Write != null) {
+                    writeTrace(generator, Path.of(options.Write), options.Threads);
+                    return;
+                }
+            }
+            if (options.Shards > 0) {
+                if (generator != null)
+                    System.out.println("Error: --shards needs a trace file, write the workload with --write first");
+                else
+                    runShards(Path.of(options.Argument), options.Shards, options.Cores, options.Policy,
+                            options.Completions);
+                return;
+            }
+            runTrace(options, generator);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         SRTFScheduler.printWelcomeScreen();
 
@@ -55,13 +141,7 @@ public class SRTFMain {
                 boolean isValidInput = arrivalTime >= 0 && burstTime > 0;
 
                 if (!validID || !isValidInput) {
-                    System.out.printf("Error at input No. %d has incorrect values: ", inputCounter);
-                    if (!validID)
-                        System.out.print("( The ID is already taken by another Process )\n");
-                    if (arrivalTime < 0)
-                        System.out.print("( The Arrival time is not valid 'less than 0' )\n");
-                    if (burstTime <= 0)
-                        System.out.print("( The burst time is not valid 'less than or equaled 0' )\n");
+                    printInputErrors(inputCounter, validID, arrivalTime, burstTime);
                     System.out.println("\nEnter the Information About Processes: (Enter '0 0 0' to Exit)");
                     System.out.println("ID AT BT");
                 } else {
@@ -72,16 +152,7 @@ public class SRTFMain {
                 System.out.println("<<<There Are No Processes>>");
             } else {
                 System.out.println("<<All Process Added Successfully>>\n");
-                System.out.println("======================================================================");
-                System.out.println("=             Gantt Chart For SJF Scheduling-Preemptive:             =");
-                System.out.println("======================================================================");
-                System.out.println("Note: (NP Means There is no Process executed At This Time)\n");
-                System.out.print(" ");
-                if (scheduler.SchedulingAlgorithm()) {
-                    System.out.println("\n======================================================================");
-                    scheduler.PrintProcessesDetails();
-                    scheduler.PrintProcessesAverages();
-                }
+                schedule(scheduler, null);
             }
 
             do {
@@ -92,4 +163,491 @@ public class SRTFMain {
         } while (ScheduleAgain.equalsIgnoreCase("Y"));
         scanner.close();
     }
+
+    /**
+     * Loads the processes of a trace file or a generator and prints the Gantt chart, the process details,
+     * the averages and the percentiles, as selected by the command line options.
+     *
+     * @param options the options of the trace or generate mode
+     * @param generator the generator of the processes, or null to load the trace file named by the options
+     */
+    private static void runTrace(Options options, WorkloadGenerator generator) {
+        Path file = generator == null ? Path.of(options.Argument) : null;
+        Path whatIf = options.WhatIf == null ? null : Path.of(options.WhatIf);
+        GanttRenderer renderer = null;
+        if (!options.Gantt.equalsIgnoreCase("none")) {
+            try {
+                renderer = GanttRenderer.forFormat(options.Gantt);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
+                return;
+            }
+        }
+        SRTFScheduler scheduler = new SRTFScheduler();
+        scheduler.setRecordGantt(renderer != null);
+        List<SchedulingPolicy> policies = new ArrayList<>();
+        try {
+            scheduler.setCores(options.Cores);
+            scheduler.setPolicy(SchedulingPolicy.forName(options.Policy));
+            scheduler.setContextSwitchCost(options.SwitchCost);
+            if (options.Compare != null)
+                for (String name : options.Compare.split(","))
+                    policies.add(SchedulingPolicy.forName(name.trim()));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+        if (options.Cores > 1 && options.Compare == null && !(scheduler.getPolicy() instanceof SRTFPolicy)) {
+            System.out.println("Error: only SRTF can be scheduled on more than one core");
+            return;
+        }
+        if (options.Cores > 1 && options.Compare == null && options.SwitchCost > 0) {
+            System.out.println("Error: context switch costs are only modelled on a single core");
+            return;
+        }
+        if (options.SampleInterval > 0) {
+            SchedulerProbe probe = new SchedulerProbe(options.SampleInterval);
+            try {
+                probe.register(file == null ? "generated" : file.getFileName().toString());
+            } catch (JMException e) {
+                System.out.println("Error: cannot register the scheduler probe: " + e.getMessage());
+                return;
+            }
+            scheduler.setProbe(probe);
+        }
+        if (options.Details != null && options.Details.Kind.equals("top"))
+            scheduler.setTopK(Math.max(options.Details.From, SchedulingMetrics.DEFAULT_TOP_K));
+        int added;
+        if (generator != null) {
+            try {
+                generator.load(scheduler);
+            } catch (ArithmeticException e) {
+                System.out.println("Error: " + e.getMessage());
+                return;
+            }
+            added = scheduler.getNumOfProcess();
+        } else {
+            try {
+                added = TraceLoader.load(file, scheduler);
+            } catch (IOException e) {
+                System.out.println("Error: cannot read the trace file " + file + ": " + e.getMessage());
+                return;
+            }
+        }
+        if (scheduler.isEmpty()) {
+            System.out.println("<<<There Are No Processes>>");
+            return;
+        }
+        if (generator != null)
+            System.out.printf("<<%d Processes Generated With Seed %d>>\n\n", added, generator.getSeed());
+        else
+            System.out.printf("<<%d Processes Loaded From %s>>\n\n", added, file);
+        if (options.Compare != null) {
+            System.out.print(scheduler.ComparePolicies(policies));
+            return;
+        }
+        if (options.Log != null && renderer == null) {
+            System.out.println("Error: a schedule log needs the Gantt chart, it cannot be written with --gantt none");
+            return;
+        }
+        if (whatIf != null) {
+            scheduler.setCheckpointInterval(options.Checkpoint > 0 ? options.Checkpoint
+                    : defaultCheckpointInterval(scheduler));
+            scheduler.SchedulingAlgorithm();
+            try {
+                added = TraceLoader.load(whatIf, scheduler);
+            } catch (IOException e) {
+                System.out.println("Error: cannot read the trace file " + whatIf + ": " + e.getMessage());
+                return;
+            }
+            System.out.printf("<<%d Processes Added From %s>>\n\n", added, whatIf);
+        }
+        if (renderer instanceof ConsoleGanttRenderer && options.GanttFile == null) {
+            schedule(scheduler, options.Details);
+            if (options.SwitchCost > 0)
+                scheduler.PrintSwitchReport();
+            printResumedFrom(scheduler, whatIf);
+            writeLog(scheduler, options.Log);
+            return;
+        }
+
+        scheduler.SchedulingAlgorithm();
+        if (renderer != null) {
+            try {
+                if (options.GanttFile == null) {
+                    scheduler.RenderGanttChart(renderer, System.out);
+                } else {
+                    try (OutputStream out = Files.newOutputStream(Path.of(options.GanttFile))) {
+                        scheduler.RenderGanttChart(renderer, out);
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Error: cannot write the Gantt chart: " + e.getMessage());
+            }
+        }
+        printDetails(scheduler, options.Details);
+        scheduler.PrintProcessesAverages();
+        scheduler.PrintProcessesPercentiles();
+        if (options.Cores > 1)
+            scheduler.PrintCoreUtilisation();
+        if (options.SwitchCost > 0)
+            scheduler.PrintSwitchReport();
+        printResumedFrom(scheduler, whatIf);
+        writeLog(scheduler, options.Log);
+    }
+
+    /**
+     * Schedules the shards of a trace file in worker JVMs and prints the results of every shard and of the
+     * whole fleet.
+     *
+     * @param file the trace file, in the text or binary format read by TraceLoader
+     * @param shards the number of shards, that is of hosts and worker JVMs
+     * @param cores the number of CPU cores of every host
+     * @param policy the name of the scheduling policy of every host
+     * @param completions the CSV file the merged completions are written to, or null for none
+     */
+    private static void runShards(Path file, int shards, int cores, String policy, String completions) {
+        ShardCoordinator coordinator;
+        try {
+            coordinator = new ShardCoordinator(shards);
+            coordinator.setCores(cores);
+            coordinator.setPolicy(policy);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+        try {
+            if (completions == null) {
+                coordinator.run(file, null);
+            } else {
+                try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(completions), 1 << 16))) {
+                    out.println("shard,id,finish,turnaround,waiting,response");
+                    coordinator.run(file, (shard, id, finish, turnAround, waiting, response) ->
+                            out.printf("%d,%d,%d,%d,%d,%d\n", shard + 1, id, finish, turnAround, waiting, response));
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error: cannot schedule the shards of " + file + ": " + e.getMessage());
+            return;
+        }
+        if (coordinator.getNumOfProcess() == 0) {
+            System.out.println("<<<There Are No Processes>>");
+            return;
+        }
+        System.out.printf("<<%d Processes Loaded From %s On %d Hosts>>\n", coordinator.getNumOfProcess(), file, shards);
+        coordinator.PrintFleetSummary();
+    }
+
+    // Prints the details of every process, or only those selected by the query
+    private static void printDetails(SRTFScheduler scheduler, DetailsQuery details) {
+        if (details == null) {
+            scheduler.PrintProcessesDetails();
+            return;
+        }
+        ResultStore results = scheduler.getResults();
+        int offset = details.Page == 0 ? 0
+                : (int) Math.min(Integer.MAX_VALUE, (long) (details.Page - 1) * details.PageSize);
+        int limit = details.Page == 0 ? Integer.MAX_VALUE : details.PageSize;
+        switch (details.Kind) {
+            case "top":
+                SRTFScheduler.PrintResults("Worst " + details.From + " Waiting Times", results,
+                        results.worstWaitingTime(details.From), offset, limit);
+                SRTFScheduler.PrintResults("Worst " + details.From + " Turnaround Times", results,
+                        results.worstTurnAroundTime(details.From), offset, limit);
+                break;
+            case "ids":
+                SRTFScheduler.PrintResults("Processes With IDs " + details.From + " To " + details.To, results,
+                        results.byID(details.From, details.To), offset, limit);
+                break;
+            case "arrivals":
+                SRTFScheduler.PrintResults("Processes Arriving From " + details.From + " To " + details.To + " ms",
+                        results, results.byArrival(details.From, details.To), offset, limit);
+                break;
+            default:
+                SRTFScheduler.PrintResults("The Details For All Processes", results, results.all(), offset, limit);
+        }
+    }
+
+    // The command line arguments of the trace, generate and replay modes
+    private static final class Options {
+        String Mode, Argument;                  // The first argument and its value
+        String Gantt = "console", GanttFile, Policy = "srtf", Compare, Log, WhatIf, Bursts = "exponential:50";
+        String Write, Completions, ReplayQuery;
+        int Count, Cores = 1, SampleInterval, SwitchCost, Checkpoint, Shards, ReplayValue, DiurnalPeriod;
+        int Threads = Runtime.getRuntime().availableProcessors();
+        long Seed = 1;
+        double Rate, DiurnalAmplitude;
+        DetailsQuery Details;                   // Null to print the details of all processes
+
+        // Parses every argument, rejecting unknown options, missing values and invalid numbers
+        static Options parse(String[] args) {
+            Options options = new Options();
+            options.Mode = args[0];
+            if (!options.Mode.equals("--trace") && !options.Mode.equals("--generate")
+                    && !options.Mode.equals("--replay"))
+                throw new IllegalArgumentException("Unknown mode: " + options.Mode);
+            options.Argument = value(args, 0);
+            if (options.Mode.equals("--generate"))
+                options.Count = integer(options.Mode, options.Argument);
+            if (options.Mode.equals("--replay")) {
+                if (args.length != 4 || !args[2].equals("--at") && !args[2].equals("--pid"))
+                    throw new IllegalArgumentException("--replay needs --at <time> or --pid <id>");
+                options.ReplayQuery = args[2];
+                options.ReplayValue = integer(args[2], args[3]);
+                return options;
+            }
+
+            String query = null, page = null;
+            Set<String> seen = new HashSet<>();
+            for (int i = 2; i < args.length; i += 2) {
+                String option = args[i];
+                if (!option.startsWith("--"))
+                    throw new IllegalArgumentException("Unexpected argument: " + option);
+                String value = value(args, i);
+                if (!seen.add(option))
+                    throw new IllegalArgumentException("The option " + option + " is given twice");
+                switch (option) {
+                    case "--gantt":       options.Gantt = value; break;
+                    case "--gantt-file":  options.GanttFile = value; break;
+                    case "--cores":       options.Cores = integer(option, value); break;
+                    case "--instrument":  options.SampleInterval = integer(option, value); break;
+                    case "--policy":      options.Policy = value; break;
+                    case "--compare":     options.Compare = value; break;
+                    case "--switch-cost": options.SwitchCost = integer(option, value); break;
+                    case "--log":         options.Log = value; break;
+                    case "--what-if":     options.WhatIf = value; break;
+                    case "--checkpoint":  options.Checkpoint = integer(option, value); break;
+                    case "--seed":
+                        try {
+                            options.Seed = Long.parseLong(value);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("The value of --seed must be an integer: " + value);
+                        }
+                        break;
+                    case "--rate":        options.Rate = number(option, value); break;
+                    case "--bursts":      options.Bursts = value; break;
+                    case "--diurnal":
+                        String[] curve = value.split(":");
+                        if (curve.length != 2)
+                            throw new IllegalArgumentException("The load curve must be <period>:<amplitude>: " + value);
+                        options.DiurnalPeriod = integer(option, curve[0]);
+                        options.DiurnalAmplitude = number(option, curve[1]);
+                        break;
+                    case "--write":       options.Write = value; break;
+                    case "--threads":     options.Threads = integer(option, value); break;
+                    case "--shards":      options.Shards = integer(option, value); break;
+                    case "--completions": options.Completions = value; break;
+                    case "--query":       query = value; break;
+                    case "--page":        page = value; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (query != null || page != null)
+                options.Details = DetailsQuery.parse(query == null ? "all" : query, page);
+            return options;
+        }
+
+        // Returns the value that follows the argument at the given index
+        private static String value(String[] args, int i) {
+            if (i + 1 >= args.length || args[i + 1].startsWith("--"))
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            return args[i + 1];
+        }
+
+        private static int integer(String option, String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The value of " + option + " must be an integer: " + value);
+            }
+        }
+
+        private static double number(String option, String value) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The value of " + option + " must be a number: " + value);
+            }
+        }
+    }
+
+    // A query of the process details given with --query and --page
+    private static final class DetailsQuery {
+        final String Kind;          // "all", "top", "ids" or "arrivals"
+        final int From, To;         // k for "top", the inclusive range otherwise
+        final int Page, PageSize;   // Page 0 prints every row
+
+        private DetailsQuery(String kind, int from, int to, int page, int pageSize) {
+            Kind = kind;
+            From = from;
+            To = to;
+            Page = page;
+            PageSize = pageSize;
+        }
+
+        static DetailsQuery parse(String query, String page) {
+            String[] parts = query.toLowerCase().split(":");
+            int[] values = new int[parts.length - 1];
+            int pageNumber = 0, pageSize = 0;
+            try {
+                for (int i = 1; i < parts.length; i++)
+                    values[i - 1] = Integer.parseInt(parts[i]);
+                if (page != null) {
+                    String[] p = page.split(":");
+                    if (p.length != 2) throw new IllegalArgumentException("The page must be <n>:<size>: " + page);
+                    pageNumber = Integer.parseInt(p[0]);
+                    pageSize = Integer.parseInt(p[1]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in query " + query + " or page " + page);
+            }
+            if (page != null && (pageNumber < 1 || pageSize < 1))
+                throw new IllegalArgumentException("The page and its size must be at least 1: " + page);
+            switch (parts[0] + "/" + values.length) {
+                case "all/0":      return new DetailsQuery("all", 0, 0, pageNumber, pageSize);
+                case "top/1":
+                    if (values[0] < 1) throw new IllegalArgumentException("The number of processes must be at least 1");
+                    return new DetailsQuery("top", values[0], 0, pageNumber, pageSize);
+                case "ids/2":      return new DetailsQuery("ids", values[0], values[1], pageNumber, pageSize);
+                case "arrivals/2": return new DetailsQuery("arrivals", values[0], values[1], pageNumber, pageSize);
+                default: throw new IllegalArgumentException("Unknown query: " + query);
+            }
+        }
+    }
+
+    // Builds the generator of the --generate mode, or prints the error and returns null
+    private static WorkloadGenerator generator(Options options) {
+        try {
+            WorkloadGenerator generator = new WorkloadGenerator(options.Seed, options.Count);
+            generator.setBursts(BurstDistribution.forName(options.Bursts));
+            generator.setArrivalRate(options.Rate);
+            generator.setDiurnal(options.DiurnalPeriod, options.DiurnalAmplitude);
+            return generator;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeTrace(WorkloadGenerator generator, Path file, int threads) {
+        long start = System.nanoTime();
+        try {
+            generator.writeTrace(file, threads);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error: cannot write the trace file " + file + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf("<<%d Processes Written To %s in %d ms>>\n", generator.getCount(), file,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Spreads 64 checkpoints over the arrival times of the processes
+    private static int defaultCheckpointInterval(SRTFScheduler scheduler) {
+        int last = 0;
+        for (int i = 0; i < scheduler.getNumOfProcess(); i++)
+            last = Math.max(last, scheduler.getProcess(i).getArrivalTime());
+        return Math.max(last / 64, 1);
+    }
+
+    // Tells how much of a what-if run was simulated again
+    private static void printResumedFrom(SRTFScheduler scheduler, Path whatIf) {
+        if (whatIf == null) return;
+        if (scheduler.getResumedFrom() > 0)
+            System.out.printf("<<Rescheduled From The Checkpoint At Time %d>>\n", scheduler.getResumedFrom());
+        else
+            System.out.println("<<Rescheduled From Time 0>>");
+    }
+
+    // Writes the schedule log of the last run, if one was asked for
+    private static void writeLog(SRTFScheduler scheduler, String log) {
+        if (log == null) return;
+        try {
+            scheduler.WriteScheduleLog(Path.of(log));
+            System.out.printf("<<Schedule Log Written To %s>>\n", log);
+        } catch (IOException e) {
+            System.out.println("Error: cannot write the schedule log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queries a schedule log written with "--log" and prints the answer.
+     *
+     * @param file the schedule log
+     * @param query "--at" for the process running at a time, or "--pid" for the times of a process
+     * @param value the time or the process ID
+     */
+    private static void replay(Path file, String query, int value) {
+        try (ScheduleLogReader reader = new ScheduleLogReader(file)) {
+            if (query.equals("--at")) {
+                for (int lane = 0; lane < reader.getLanes(); lane++) {
+                    OptionalInt id = reader.getProcessAt(lane, value);
+                    String running = id.isPresent() ? "P" + id.getAsInt() : "NP";
+                    if (reader.getLanes() > 1)
+                        System.out.printf("Core %d: %s\n", lane + 1, running);
+                    else
+                        System.out.printf("Time %d: %s\n", value, running);
+                }
+            } else {
+                Process process = reader.getProcess(value);
+                if (process == null) {
+                    System.out.printf("There is no process with ID %d in the schedule log\n", value);
+                    return;
+                }
+                System.out.printf("Process %d: arrival %d ms, burst %d ms, start %d ms, finish %d ms, " +
+                                "waiting %d ms, turnaround %d ms, response %d ms\n",
+                        value, process.getArrivalTime(), process.getBurstTime(), process.getStartingTime(),
+                        process.getFinishingTime(), process.getWaitingTime(), process.getTurnAroundTime(),
+                        process.getResponseTime());
+            }
+        } catch (IOException e) {
+            System.out.println("Error: cannot read the schedule log " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the scheduling algorithm and prints the Gantt chart, the process details, the averages and the percentiles.
+     *
+     * @param scheduler the scheduler holding the processes
+     * @param details the query of the process details to print, or null to print all processes
+     */
+    private static void schedule(SRTFScheduler scheduler, DetailsQuery details) {
+        System.out.println("======================================================================");
+        String policy = scheduler.getPolicy() instanceof SRTFPolicy ? "SJF" : scheduler.getPolicy().getName();
+        String title = "Gantt Chart For " + policy + " Scheduling" +
+                (scheduler.getPolicy() instanceof SRTFPolicy ? "-Preemptive:" : ":");
+        int padding = Math.max(68 - title.length(), 0);
+        System.out.println("=" + " ".repeat(padding / 2) + title + " ".repeat(padding - padding / 2) + "=");
+        System.out.println("======================================================================");
+        System.out.println("Note: (NP Means There is no Process executed At This Time)\n");
+        if (scheduler.SchedulingAlgorithm()) {
+            if (scheduler.getCoreUtilisation().length == 1)
+                System.out.print(" ");
+            scheduler.PrintGanttChart();
+            System.out.println("\n======================================================================");
+            printDetails(scheduler, details);
+            scheduler.PrintProcessesAverages();
+            scheduler.PrintProcessesPercentiles();
+            if (scheduler.getCoreUtilisation().length > 1)
+                scheduler.PrintCoreUtilisation();
+        }
+    }
+
+    /**
+     * Prints why the values of an input were rejected: the ID is already taken, the arrival time is negative,
+     * or the burst time is not positive.
+     *
+     * @param inputCounter the number of the input
+     * @param validID whether the ID is still free
+     * @param arrivalTime the arrival time of the input
+     * @param burstTime the burst time of the input
+     */
+    static void printInputErrors(int inputCounter, boolean validID, int arrivalTime, int burstTime) {
+        System.out.printf("Error at input No. %d has incorrect values: ", inputCounter);
+        if (!validID)
+            System.out.print("( The ID is already taken by another Process )\n");
+        if (arrivalTime < 0)
+            System.out.print("( The Arrival time is not valid 'less than 0' )\n");
+        if (burstTime <= 0)
+            System.out.print("( The burst time is not valid 'less than or equaled 0' )\n");
+    }
 }
\ No newline at end of file
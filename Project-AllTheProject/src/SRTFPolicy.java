@@ -0,0 +1,121 @@
+/**
+ * Shortest Remaining Time First: the ready process with the least remaining time runs, and an arrival with a
+ * strictly shorter remaining time preempts the running process. Ties go to the running process, then to the most
+ * recently preempted process, then to the earliest arrival. The ready set is a ReadyHeap keyed by remaining time.
+ *
+ * With a preemption threshold, a waiting process only preempts when its remaining time is shorter by more than
+ * the threshold. This hysteresis stops the CPU from switching back and forth between processes whose remaining
+ * times are close, which matters once context switches have a cost.
+ */
+public class SRTFPolicy implements SchedulingPolicy {
+    private final int Threshold;                // How much shorter a process must be to preempt
+    private ProcessTable Table;
+    private ReadyHeap WaitingQueue;             // Waiting processes ordered by remaining time
+    private long RunningRank;                   // Tie-break rank of the running process
+    private long Arrivals, Dispatches;
+
+    /**
+     * Constructs the SRTF policy, in which any strictly shorter process preempts.
+     */
+    public SRTFPolicy() {
+        this(0);
+    }
+
+    /**
+     * Constructs an SRTF policy with the given preemption threshold.
+     *
+     * @param threshold how much shorter than the running process a waiting process must be to preempt it
+     */
+    public SRTFPolicy(int threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("The preemption threshold must not be negative: " + threshold);
+        Threshold = threshold;
+    }
+
+    /**
+     * Returns the preemption threshold.
+     *
+     * @return how much shorter than the running process a waiting process must be to preempt it
+     */
+    public int getThreshold() {return Threshold;}
+
+    @Override
+    public String getName() {return Threshold == 0 ? "SRTF" : "SRTF(t=" + Threshold + ")";}
+
+    @Override
+    public void reset(ProcessTable table) {
+        Table = table;
+        WaitingQueue = new ReadyHeap(table.size());
+        Arrivals = 0;
+        Dispatches = 0;
+    }
+
+    @Override
+    public void arrived(int row) {WaitingQueue.add(row, Table.getRemainingTime(row), Arrivals++);}
+
+    @Override
+    public void preempted(int row) {WaitingQueue.add(row, Table.getRemainingTime(row), RunningRank);}
+
+    @Override
+    public void expired(int row) {preempted(row);}
+
+    @Override
+    public int next() {
+        RunningRank = -(++Dispatches);
+        return WaitingQueue.removeMin();
+    }
+
+    @Override
+    public boolean preempts(int running) {
+        return (long) WaitingQueue.getKey(WaitingQueue.peekMin()) + Threshold < Table.getRemainingTime(running);
+    }
+
+    @Override
+    public int getTimeSlice(int row) {return Integer.MAX_VALUE;}
+
+    @Override
+    public boolean isEmpty() {return WaitingQueue.isEmpty();}
+
+    @Override
+    public int size() {return WaitingQueue.size();}
+
+    @Override
+    public State saveState() {
+        int[] rows = new int[WaitingQueue.size()];
+        long[] ranks = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = WaitingQueue.getSlotAt(i);
+            ranks[i] = WaitingQueue.getRank(rows[i]);
+        }
+        return new HeapState(rows, ranks, RunningRank, Arrivals, Dispatches);
+    }
+
+    @Override
+    public void restoreState(State state) {
+        HeapState saved = (HeapState) state;
+        WaitingQueue.clear();
+        // The rows are added in heap order, which rebuilds the same heap
+        for (int i = 0; i < saved.Rows.length; i++)
+            WaitingQueue.add(saved.Rows[i], Table.getRemainingTime(saved.Rows[i]), saved.Ranks[i]);
+        RunningRank = saved.RunningRank;
+        Arrivals = saved.Arrivals;
+        Dispatches = saved.Dispatches;
+    }
+
+    // Waiting rows in heap order with their ranks, and the tie-break counters
+    private static final class HeapState implements State {
+        final int[] Rows;
+        final long[] Ranks;
+        final long RunningRank, Arrivals, Dispatches;
+
+        HeapState(int[] rows, long[] ranks, long runningRank, long arrivals, long dispatches) {
+            Rows = rows;
+            Ranks = ranks;
+            RunningRank = runningRank;
+            Arrivals = arrivals;
+            Dispatches = dispatches;
+        }
+
+        @Override
+        public int[] getWaiting() {return Rows;}
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 /**
  * Implements the Shortest Remaining Time First (SRTF) scheduling algorithm for a set of processes.
@@ -5,9 +7,24 @@ import java.util.*;
  * @author waleed
  */
 public class SRTFScheduler {
-    private Process[] ReadyQueue;               // Array called ReadyQueue of type Process that store all process
-    private final Set<Integer> processIDs;      // Hash Set called ProcessIDs of type Integer that store all process ID's
-    private int NumOfProcess;                   // Number of process in the ReadyQueue
+    private final ProcessTable ReadyQueue;      // Columnar table called ReadyQueue that store all process
+    private final IntSet processIDs;            // Primitive int set called ProcessIDs that store all process ID's
+    private GanttChart[] Gantt;                 // Schedule recorded by the last run, one lane per core, or null
+    private boolean RecordGantt = true;         // Record the Gantt chart while scheduling
+    private int Cores = 1;                      // Number of identical CPU cores to schedule on
+    private SchedulingPolicy Policy = new SRTFPolicy();     // Selection rule used on a single core
+    private int SwitchCost = 0;                 // Simulated time each context switch takes
+    private int CompletionTime;                 // Time the last process finished in the last run
+    private double[] CoreUtilisation;           // Fraction of the last run each core was busy
+    private long Migrations;                    // Times a process resumed on another core in the last run
+    private final SchedulingMetrics Metrics = new SchedulingMetrics();   // Collected during the last run
+    private SchedulerProbe Probe;               // Live instrumentation of the run, null when it is off
+    private int CheckpointInterval = 0;         // Simulated time between checkpoints, 0 when they are off
+    private final ArrayList<SchedulingEngine.Checkpoint> Checkpoints = new ArrayList<>();  // Taken by the last run, by time
+    private int[] IDOrder;                      // Order the last run sorted the rows by ID in, null if they are unsorted
+    private int EarliestChange = Integer.MAX_VALUE;     // Earliest arrival time added or removed since the last run
+    private int ResumedFrom = 0;                // Time the last run was resumed from
+    private boolean ResultsCurrent = false;     // The table holds the results of the last run, ordered by ID
     public double AverageTurnAroundTime, AverageWaitingTime, AverageResponseTime;   // Three variable to calculated average times
 
     /**
@@ -16,53 +33,40 @@ public class SRTFScheduler {
      * Processes can be added to the scheduler using the AddProcess() method.
      */
     public SRTFScheduler() {
-        ReadyQueue = new Process[10];
-        processIDs = new HashSet<>();
-        NumOfProcess = 0;
+        ReadyQueue = new ProcessTable(10);
+        processIDs = new IntSet(10);
     }
 
     /**
-     * Re-sorts the ready queue based on process arrival time, using a simple selection sort algorithm.
+     * Re-sorts the ready queue based on process arrival time, using a stable radix sort. Processes with the same
+     * arrival time keep the order in which they were added.
      */
     public void ReSortBasedOnArriveTime() {
-        Process temp1;
-        for (int i = 0; i < NumOfProcess; i++)
-            for (int j = i+1; j < NumOfProcess; j++)
-                if (ReadyQueue[i].getArrivalTime() > ReadyQueue[j].getArrivalTime()){
-                    temp1 = ReadyQueue[i];
-                    ReadyQueue[i]= ReadyQueue[j];
-                    ReadyQueue[j]=temp1;
-                }
+        ReadyQueue.sortByArrivalTime();
+        IDOrder = null;
+        ResultsCurrent = false;
+        Checkpoints.clear();
     }
 
     /**
-     * Re-sorts the ready queue based on process ID, using a simple selection sort algorithm.
+     * Re-sorts the ready queue based on process ID, using a stable radix sort.
      */
     public void ReSortBasedOnProcessID() {
-        Process temp1;
-        for (int i = 0; i < NumOfProcess; i++)
-            for (int j = i+1; j < NumOfProcess; j++)
-                if (ReadyQueue[i].getProcessID() > ReadyQueue[j].getProcessID()){
-                    temp1 = ReadyQueue[i];
-                    ReadyQueue[i]= ReadyQueue[j];
-                    ReadyQueue[j]=temp1;
-                }
+        ReadyQueue.sortByProcessID();
+        IDOrder = null;
+        ResultsCurrent = false;
+        Checkpoints.clear();
     }
 
     /**
-     * Re-sorts the given list of processes based on remaining time, using a simple bubble sort algorithm.
+     * Re-sorts the given list of processes based on remaining time. The sort is stable, so processes with the same
+     * remaining time keep their relative order. The scheduler itself keeps waiting processes in a ReadyHeap and
+     * does not need this method.
      *
      * @param list the list of processes to be sorted
      */
     public void ReSortBasedOnRemainingTIme(ArrayList<Process> list) {
-        int n = list.size();
-        for (int i = 0; i < n - 1; i++)
-            for (int j = 0; j < n - i - 1; j++)
-                if (list.get(j).getRemainingTime() > list.get(j + 1).getRemainingTime()) {
-                    Process temp = list.get(j);
-                    list.set(j, list.get(j + 1));
-                    list.set(j + 1, temp);
-        }
+        list.sort(Comparator.comparingInt(Process::getRemainingTime));
     }
 
     /**
@@ -81,132 +85,420 @@ public class SRTFScheduler {
      * @return true if the ready queue is empty, false otherwise.
      */
     public boolean isEmpty(){
-        return NumOfProcess == 0;
+        return ReadyQueue.size() == 0;
+    }
+
+    /**
+     * Returns the number of processes in the ready queue.
+     *
+     * @return the number of processes in the ready queue
+     */
+    public int getNumOfProcess() {
+        return ReadyQueue.size();
+    }
+
+    /**
+     * Returns a Process view over the process at the given position of the ready queue. After the
+     * SchedulingAlgorithm() method has run, the ready queue is ordered by process ID.
+     *
+     * @param index the position of the process in the ready queue
+     * @return a view over the process, backed by the ready queue
+     */
+    public Process getProcess(int index) {
+        return new Process(ReadyQueue, index);
     }
 
     /**
-     * Adds a new process to the ready queue with the given ID, arrival time, and burst time.
+     * Reserves room for the given number of processes, so that bulk loading does not have to grow the ready
+     * queue and the ID set repeatedly.
+     *
+     * @param capacity the total number of processes expected
+     */
+    public void ensureCapacity(int capacity) {
+        ReadyQueue.ensureCapacity(capacity);
+        processIDs.ensureCapacity(capacity);
+    }
+
+    /**
+     * Adds a new process to the ready queue with the given ID, arrival time, and burst time. The scheduler is not
+     * thread-safe; to submit processes from many threads, use a ConcurrentSubmitter.
      *
      * @param id the ID of the new process
      * @param at the arrival time of the new process
      * @param bt the burst time of the new process
      */
     public void AddProcess(int id, int at, int bt) {
-        if (ReadyQueue.length==NumOfProcess)
-            ReadyQueue = Arrays.copyOf(ReadyQueue,ReadyQueue.length*2);
-
-        ReadyQueue[NumOfProcess] = new Process(id, at, bt);
-        NumOfProcess++;
+        ReadyQueue.add(id, at, bt);
         processIDs.add(id);
+        EarliestChange = Math.min(EarliestChange, at);
+        ResultsCurrent = false;
+    }
+
+    /**
+     * Removes the process with the given ID from the ready queue. With checkpoints on, the next run resumes from
+     * the last checkpoint before its arrival time.
+     *
+     * @param id the ID of the process to remove
+     * @return true if the process was removed, false if there is no process with that ID
+     */
+    public boolean RemoveProcess(int id) {
+        if (!processIDs.remove(id)) return false;
+        int row = 0;
+        while (ReadyQueue.getProcessID(row) != id)
+            row++;
+        EarliestChange = Math.min(EarliestChange, ReadyQueue.getArrivalTime(row));
+        if (IDOrder != null && row < IDOrder.length) {
+            // Drop the row from the arrival order of the last run, in which it was row IDOrder[row]
+            int removed = IDOrder[row];
+            int[] order = new int[IDOrder.length - 1];
+            for (int i = 0, j = 0; i < IDOrder.length; i++)
+                if (i != row) order[j++] = IDOrder[i] > removed ? IDOrder[i] - 1 : IDOrder[i];
+            IDOrder = order;
+        }
+        ReadyQueue.remove(row);
+        ResultsCurrent = false;
+        return true;
     }
 
     /**
-     * Implements the Shortest Remaining Time First (SRTF) scheduling algorithm.
+     * Implements the Shortest Remaining Time First (SRTF) scheduling algorithm, or the policy set with setPolicy().
+     * The processes are handed to a SchedulingEngine in arrival order; the simulation is event driven, so the run
+     * costs O(N log N) regardless of the burst times. The schedule is recorded as a GanttChart, which can be
+     * printed afterwards with PrintGanttChart(). With more than one core the processes are scheduled by a
+     * MultiCoreSRTFEngine and one Gantt chart lane is recorded per core; that is only supported for SRTF.
      *
      * @return true if the scheduling algorithm was successful, false otherwise
      */
     public boolean SchedulingAlgorithm() {
+        int NumOfProcess = ReadyQueue.size();
         if (NumOfProcess <= 0) return false;
+        if (Cores > 1 && !(Policy instanceof SRTFPolicy))
+            throw new IllegalStateException("Only SRTF can be scheduled on more than one core, not " + Policy.getName());
+        if (Cores > 1 && SwitchCost > 0)
+            throw new IllegalStateException("Context switch costs are only modelled on a single core");
+
+        ResultsCurrent = false;
+        arrangeByArrivalTime();
+        SchedulingEngine.Checkpoint resume = null;
+        if (Cores == 1)
+            resume = latestCheckpoint(EarliestChange);
+        else
+            Checkpoints.clear();
+        EarliestChange = Integer.MAX_VALUE;
+        ResumedFrom = resume == null ? 0 : resume.getTime();
+        int first = resume == null ? 0 : resume.getArrived();
+        ReadyQueue.reset(first);
+        Metrics.reset();
 
-        ArrayList<Process> WaitingArray = new ArrayList<>(NumOfProcess);
-        ReSortBasedOnArriveTime();
-
-        int TotalTime = 0;
-        for (int i=0; i<NumOfProcess; i++)
-            TotalTime += ReadyQueue[i].getBurstTime();
-
-        int CurrentProcessID = -1, NewProcessID = -1 , counter=0;
-        for (int CurrentTime = 0; CurrentTime < TotalTime; CurrentTime++) {
-            // Add new processes to the waiting array based on:
-            // 1. arrival time for the process is less than or equal CurrentTime
-            // 2. process not terminate yet
-            for (int i=0; i<NumOfProcess; i++) {
-                if (ReadyQueue[i].getArrivalTime() <= CurrentTime && !ReadyQueue[i].isTerminate())
-                    if (ReadyQueue[i].getRemainingTime() == 0 && ReadyQueue[i].getExecutedTime()==0)
-                        WaitingArray.add(ReadyQueue[i]);
+        if (Cores == 1) {
+            SchedulingEngine Engine = new SchedulingEngine(ReadyQueue, Policy);
+            if (resume == null)
+                Gantt = RecordGantt ? new GanttChart[] {new GanttChart()} : null;
+            Engine.setGanttChart(RecordGantt ? Gantt[0] : null);
+            Engine.setMetrics(Metrics);
+            Engine.setProbe(Probe);
+            Engine.setContextSwitchCost(SwitchCost);
+            if (resume != null) {
+                // The processes that terminated before the checkpoint keep their times and are not simulated again
+                Engine.restore(resume);
+                for (int i=0; i<first; i++) {
+                    if (ReadyQueue.getFinishingTime(i) != -1)
+                        Metrics.recordCompletion(ReadyQueue.getProcessID(i), ReadyQueue.getTurnAroundTime(i),
+                                ReadyQueue.getWaitingTime(i), ReadyQueue.getResponseTime(i));
+                }
             }
-            // Update the remaining time of waiting processes
-            for (Process Pro: WaitingArray)
-                Pro.setRemainingTime();
-
-            // If a process has finished execution, move it from the waiting array to the ready queue
-            if (!WaitingArray.isEmpty() && WaitingArray.get(0).getRemainingTime()==0){
-                ReadyQueue[counter]= WaitingArray.remove(0);
-                counter++;
+            long NextCheckpoint = nextCheckpoint(ResumedFrom, resume != null);
+            for (int i=first; i<NumOfProcess; i++) {
+                int at = ReadyQueue.getArrivalTime(i);
+                if (at >= NextCheckpoint) {
+                    Engine.advanceTo(at);
+                    Checkpoints.add(Engine.checkpoint());
+                    NextCheckpoint = nextCheckpoint(at, true);
+                }
+                Engine.arrive(i);
             }
+            Engine.drain();
+            CompletionTime = Engine.getCurrentTime();
+            CoreUtilisation = new double[] {busyFraction(CompletionTime)};
+            Migrations = 0;
+        } else {
+            MultiCoreSRTFEngine Engine = new MultiCoreSRTFEngine(ReadyQueue, Cores);
+            Engine.setRecordGantt(RecordGantt);
+            Engine.setMetrics(Metrics);
+            Engine.setProbe(Probe);
+            Engine.setPreemptionThreshold(((SRTFPolicy) Policy).getThreshold());
+            for (int i=0; i<NumOfProcess; i++)
+                Engine.arrive(i);
+            Engine.drain();
+            CompletionTime = Engine.getCurrentTime();
+            Gantt = Engine.getLanes();
+            CoreUtilisation = new double[Cores];
+            for (int c=0; c<Cores; c++)
+                CoreUtilisation[c] = Engine.getUtilisation(c);
+            Migrations = Engine.getMigrations();
+        }
 
-            // Sort the waiting array based on remaining time
-            ReSortBasedOnRemainingTIme(WaitingArray);
+        // All processes have finished execution; the turnaround, waiting and response times are derived from the
+        // starting and finishing times stored in the ReadyQueue
+        IDOrder = ReadyQueue.sortByProcessID();
+        ResultsCurrent = true;
+        return true;
+    }
 
-            // Determine the next process to execute
-            if(WaitingArray.size() > 0){
-                NewProcessID = WaitingArray.get(0).getProcessID();
-            }
+    /**
+     * Makes SchedulingAlgorithm() save the state of the schedule about every given number of time units, at the
+     * first arrival from each multiple of the interval on. When processes are added or removed afterwards, the
+     * next run resumes from the last checkpoint before the earliest of their arrival times instead of simulating
+     * from time 0, so it only does the work after that point. Every checkpoint holds the processes waiting at its
+     * time. Checkpoints are only taken on a single core, and changing the policy, the switch cost, the number of
+     * cores or whether the Gantt chart is recorded discards them.
+     *
+     * @param interval the simulated time between checkpoints, or 0 to turn checkpoints off
+     */
+    public void setCheckpointInterval(int interval) {
+        if (interval < 0) throw new IllegalArgumentException("The checkpoint interval must not be negative: " + interval);
+        CheckpointInterval = interval;
+        Checkpoints.clear();
+    }
 
-            // Execute the next process
-            if (NewProcessID == -1) {
-                System.out.print(CurrentTime + " | NP | ");
-                TotalTime++;
-                NewProcessID =-10;
-            }
-            else if (NewProcessID == -10){
-                TotalTime++;
-            }
-            else if (NewProcessID >= 0 && NewProcessID != CurrentProcessID) {
-                System.out.print(CurrentTime + " | P" + NewProcessID + " | ");
-                CurrentProcessID = NewProcessID;
-                WaitingArray.get(0).setExecutedTime();
-                if (WaitingArray.get(0).getStartingTime() == -1) {
-                    WaitingArray.get(0).setStartingTime(CurrentTime);
-                }
-            }
-            else if (CurrentProcessID == NewProcessID) {
-                WaitingArray.get(0).setExecutedTime();
-            }
+    /**
+     * Returns the number of checkpoints kept from the last run of the SchedulingAlgorithm() method.
+     *
+     * @return the number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return Checkpoints.size();
+    }
 
-            // If a process has finished execution, update its finishing time and mark it as terminated
-            if (NewProcessID >= 0 && WaitingArray.get(0).isTerminate()){
-                WaitingArray.get(0).setFinishing_time((CurrentTime) + 1);
-                NewProcessID = -1;
-            }
+    /**
+     * Returns the simulated time the last run of the SchedulingAlgorithm() method was resumed from.
+     *
+     * @return the time of the checkpoint it resumed from, or 0 if it was simulated from the start
+     */
+    public int getResumedFrom() {
+        return ResumedFrom;
+    }
 
-            // If all processes have finished execution, calculate the average turnaround time, waiting time, and response time
-            if (CurrentTime + 1 == TotalTime) {
-                ReadyQueue[counter]= WaitingArray.remove(0);
-                System.out.println(TotalTime);
-                ReSortBasedOnProcessID();
-                for (int i=0; i<NumOfProcess; i++) {
-                    ReadyQueue[i].setResponse_time(ReadyQueue[i].getStartingTime() - ReadyQueue[i].getArrivalTime());
-                    ReadyQueue[i].setTurnAroundTime(ReadyQueue[i].getFinishingTime() - ReadyQueue[i].getArrivalTime());
-                    ReadyQueue[i].setWaitingTime(ReadyQueue[i].getTurnAroundTime() - ReadyQueue[i].getBurstTime());
-                }
-            }
+    /**
+     * Enables or disables recording the Gantt chart. Turning it off saves the memory and time spent on the
+     * chart when only the process metrics are needed.
+     *
+     * @param record true to record the Gantt chart during SchedulingAlgorithm()
+     */
+    public void setRecordGantt(boolean record) {
+        RecordGantt = record;
+        Checkpoints.clear();
+    }
+
+    /**
+     * Sets the number of identical CPU cores the processes are scheduled on. The default is 1.
+     *
+     * @param cores the number of cores, at least 1
+     */
+    public void setCores(int cores) {
+        if (cores < 1) throw new IllegalArgumentException("The number of cores must be at least 1: " + cores);
+        Cores = cores;
+        Checkpoints.clear();
+    }
+
+    /**
+     * Sets the scheduling policy used by SchedulingAlgorithm(). The default is SRTF.
+     *
+     * @param policy the scheduling policy
+     */
+    public void setPolicy(SchedulingPolicy policy) {
+        Policy = Objects.requireNonNull(policy);
+        Checkpoints.clear();
+    }
+
+    /**
+     * Returns the scheduling policy used by SchedulingAlgorithm().
+     *
+     * @return the scheduling policy
+     */
+    public SchedulingPolicy getPolicy() {
+        return Policy;
+    }
+
+    /**
+     * Sets the simulated time each context switch takes. Every dispatch of a process then keeps the CPU busy for
+     * that long before the process executes. The default is 0; a cost can only be used on a single core.
+     *
+     * @param cost the switch cost, not negative
+     */
+    public void setContextSwitchCost(int cost) {
+        if (cost < 0) throw new IllegalArgumentException("The context switch cost must not be negative: " + cost);
+        SwitchCost = cost;
+        Checkpoints.clear();
+    }
 
+    /**
+     * Schedules the processes with every given policy in a single pass over them: each arrival is handed to one
+     * streaming engine per policy in turn, so the processes are read once however many policies are compared.
+     * Only the metrics of every policy are kept; the ready queue itself is not changed.
+     *
+     * @param policies the policies to compare, each a new instance
+     * @return the metrics of every policy
+     */
+    public PolicyComparison ComparePolicies(List<SchedulingPolicy> policies) {
+        PolicyComparison comparison = new PolicyComparison(policies);
+        comparison.setContextSwitchCost(SwitchCost);
+        arrangeByArrivalTime();
+        for (int i=0; i<ReadyQueue.size(); i++)
+            comparison.submit(ReadyQueue.getProcessID(i), ReadyQueue.getArrivalTime(i), ReadyQueue.getBurstTime(i));
+        comparison.finish();
+        IDOrder = ReadyQueue.sortByProcessID();
+        return comparison;
+    }
+
+    /**
+     * Turns live instrumentation of SchedulingAlgorithm() on or off. With a probe, the progress of a long run can
+     * be watched over JMX once the probe is registered, and dispatches, preemptions and completions are sampled as
+     * Flight Recorder events. Without one, the engine does no instrumentation work at all.
+     *
+     * @param probe the probe to report to, or null to turn instrumentation off
+     */
+    public void setProbe(SchedulerProbe probe) {
+        Probe = probe;
+    }
+
+    /**
+     * Returns the Gantt chart recorded by the last run of the SchedulingAlgorithm() method. With more than one
+     * core this is the lane of the first core.
+     *
+     * @return the recorded Gantt chart, or null if nothing was recorded
+     */
+    public GanttChart getGanttChart() {
+        return Gantt == null ? null : Gantt[0];
+    }
+
+    /**
+     * Returns the Gantt chart lanes recorded by the last run of the SchedulingAlgorithm() method, one per core.
+     *
+     * @return the recorded lanes, or null if nothing was recorded
+     */
+    public GanttChart[] getGanttCharts() {
+        return Gantt;
+    }
+
+    /**
+     * Returns the fraction of the last run each core spent executing processes.
+     *
+     * @return the utilisation of every core, between 0 and 1, or null before the first run
+     */
+    public double[] getCoreUtilisation() {
+        return CoreUtilisation;
+    }
+
+    /**
+     * Returns the number of times a preempted process resumed on a different core during the last run.
+     *
+     * @return the number of migrations, 0 on a single core
+     */
+    public long getMigrations() {
+        return Migrations;
+    }
+
+    /**
+     * Returns the metrics collected during the last run of the SchedulingAlgorithm() method: the percentiles of
+     * the turnaround, waiting and response times, the context switches and the idle time.
+     *
+     * @return the metrics of the last run
+     */
+    public SchedulingMetrics getMetrics() {
+        return Metrics;
+    }
+
+    /**
+     * Sets how many processes with the worst waiting and turnaround times the next run keeps for
+     * ResultStore.worstWaitingTime() and worstTurnAroundTime(). The default is 10.
+     *
+     * @param k the number of processes to keep, not negative
+     */
+    public void setTopK(int k) {
+        Metrics.setTopK(k);
+    }
+
+    /**
+     * Returns a queryable view over the results of the last run of the SchedulingAlgorithm() method. The view
+     * reads the ready queue, so it is only valid until processes are added, removed or re-sorted.
+     *
+     * @return the results of the last run
+     * @throws IllegalStateException if the processes changed since the last run, or were never scheduled
+     */
+    public ResultStore getResults() {
+        if (!ResultsCurrent)
+            throw new IllegalStateException("The processes have not been scheduled since they last changed");
+        return new ResultStore(ReadyQueue, IDOrder, Metrics);
+    }
+
+    /**
+     * Writes the schedule of the last run to a binary schedule log: the segments of every Gantt chart lane and the
+     * times of every process. The log can be queried with ScheduleLogReader without scheduling again.
+     *
+     * @param file the log file to create
+     * @throws IOException if the file cannot be written
+     */
+    public void WriteScheduleLog(Path file) throws IOException {
+        if (Gantt == null)
+            throw new IllegalStateException("No Gantt chart was recorded by the last run");
+        try (ScheduleLogWriter writer = new ScheduleLogWriter(file)) {
+            writer.writeLanes(Gantt);
+            writer.writeProcesses(ReadyQueue);
         }
-        return true;
     }
 
     /**
-     This method calculates and prints the average turnaround time, response time, and waiting time for all processes in the ReadyQueue.
-     The average response time, turnaround time, and waiting time are calculated by dividing the total values by the total number of processes.
-     The calculated average values are rounded to three decimal places using the Math.round() method.
-     The method then generates a formatted string containing the calculated average values and prints it to the console.
+     * Renders the recorded Gantt chart with the given renderer.
+     *
+     * @param renderer the renderer for the output format
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
      */
-    public void PrintProcessesAverages() {
-        if (NumOfProcess <= 0) return;
-        double WaitingTime = 0, TurnAroundTime = 0, ResponseTime = 0;
-        for (int i=0; i<NumOfProcess; i++) {
-            WaitingTime += ReadyQueue[i].getWaitingTime();
-            TurnAroundTime += ReadyQueue[i].getTurnAroundTime();
-            ResponseTime += ReadyQueue[i].getResponseTime();
+    public void RenderGanttChart(GanttRenderer renderer, OutputStream out) throws IOException {
+        if (Gantt != null && Gantt.length == 1)
+            renderer.render(Gantt[0], out);
+        else if (Gantt != null)
+            renderer.render(Gantt, out);
+    }
+
+    /**
+     * Prints the recorded Gantt chart to the console as one line of segments, for example
+     * "0 | P1 | 3 | NP | 5 | P2 | 9". With more than one core there is one line per core.
+     */
+    public void PrintGanttChart() {
+        try {
+            BufferedOutputStream out = new BufferedOutputStream(System.out, 1 << 16);
+            RenderGanttChart(new ConsoleGanttRenderer(), out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        AverageTurnAroundTime = TurnAroundTime / NumOfProcess;
-        AverageWaitingTime = WaitingTime / NumOfProcess;
-        AverageResponseTime = ResponseTime / NumOfProcess;
+    /**
+     This method calculates the average turnaround time, response time, and waiting time for all processes in the ReadyQueue
+     and stores them in the AverageTurnAroundTime, AverageResponseTime and AverageWaitingTime fields without printing anything.
+     The averages are the exact means of the metrics collected while the processes ran, so the ReadyQueue is not scanned again.
+     The calculated average values are rounded to three decimal places using the Math.round() method.
+     */
+    public void CalculateAverages() {
+        if (Metrics.getCompleted() <= 0) return;
+        AverageTurnAroundTime = Metrics.getTurnAroundTime().getMean();
+        AverageWaitingTime = Metrics.getWaitingTime().getMean();
+        AverageResponseTime = Metrics.getResponseTime().getMean();
         AverageResponseTime = Math.round(AverageResponseTime * 1000.0) / 1000.0;
         AverageTurnAroundTime = Math.round(AverageTurnAroundTime * 1000.0) / 1000.0;
         AverageWaitingTime = Math.round(AverageWaitingTime * 1000.0) / 1000.0;
+    }
+
+    /**
+     This method calculates the average times with CalculateAverages() and prints them to the console.
+     The method generates a formatted string containing the calculated average values and prints it to the console.
+     */
+    public void PrintProcessesAverages() {
+        if (ReadyQueue.size() <= 0) return;
+        CalculateAverages();
 
         String Print = "\n\n======================================================================\n" +
                 "=                  Average Times For All Process:                    =\n" +
@@ -222,30 +514,141 @@ public class SRTFScheduler {
     }
 
     /**
-     This method prints the details of all processes in the ReadyQueue to the console.
-     The method iterates through each process in the ReadyQueue and generates a formatted
-     string containing the process ID, waiting time, turnaround time, and response time for each process.
+     This method prints the p50, p90, p99, p99.9 and maximum of the turnaround, response and waiting times of the last run,
+     together with the number of context switches, preemptions and the idle time.
      */
-    public void PrintProcessesDetails() {
+    public void PrintProcessesPercentiles() {
+        if (Metrics.getCompleted() <= 0) return;
+        System.out.print(Metrics);
+    }
+
+    /**
+     This method prints what the context switches of the last run cost: the number of switches counted from the Gantt chart,
+     the time spent switching, the completion time and the throughput, next to the mean and p99 turnaround time they bought.
+     */
+    public void PrintSwitchReport() {
+        if (Metrics.getCompleted() <= 0) return;
+        long switches = 0;
+        if (Gantt != null)
+            for (GanttChart lane : Gantt)
+                switches += lane.getContextSwitches();
+        else
+            switches = Metrics.getContextSwitches();
+        double throughput = CompletionTime == 0 ? 0 : Metrics.getCompleted() * 1000.0 / CompletionTime;
         StringBuilder sb = new StringBuilder();
         sb.append("\n\n======================================================================\n");
-        sb.append("=                   The Details For All Processes                    =\n");
+        sb.append("=                   Context Switch Cost Trade-off:                   =\n");
         sb.append("======================================================================\n");
-        sb.append(String.format("%-2s %-11s %-2s %-13s %-2s %-16s %-2s %-2s %-1s\n",
-                "=","Process ID","=","Waiting Time","=","Turnaround Time","=", "Response Time",'='));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Policy:", Policy.getName(), "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Context Switches:", switches, "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Switch Cost:", SwitchCost + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Time Spent Switching:", switches * SwitchCost + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Completion Time:", CompletionTime + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Throughput:", Math.round(throughput * 1000.0) / 1000.0 + " processes/s", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Turnaround mean / p99:",
+                Math.round(Metrics.getTurnAroundTime().getMean() * 1000.0) / 1000.0 + " / " +
+                Metrics.getTurnAroundTime().getValueAtPercentile(99) + " ms", "="));
         sb.append("======================================================================\n");
-        for (int i=0; i<NumOfProcess; i++) {
-            sb.append(String.format(
-                            "%-6s %-7s %-7s %-8s %-9s %-9s %-8s %-7s %-1s\n",
-                            "=", ReadyQueue[i].getProcessID(),       "=",
-                            ReadyQueue[i].getWaitingTime()+" ms",    "=",
-                            ReadyQueue[i].getTurnAroundTime()+" ms", "=",
-                            ReadyQueue[i].getResponseTime()+" ms",   "="));
+        System.out.print(sb);
+    }
+
+    /**
+     This method prints the fraction of the schedule each CPU core spent executing processes, the average over
+     all cores and, on more than one core, the number of migrations.
+     */
+    public void PrintCoreUtilisation() {
+        if (CoreUtilisation == null) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\n======================================================================\n");
+        sb.append("=                    Utilisation For Every Core:                     =\n");
+        sb.append("======================================================================\n");
+        double total = 0;
+        for (int c=0; c<CoreUtilisation.length; c++) {
+            total += CoreUtilisation[c];
+            sb.append(String.format("%-2s %-24s %-40s %-2s\n",
+                    "=", "Core " + (c + 1) + ":", Math.round(CoreUtilisation[c] * 100000.0) / 1000.0 + " %", "="));
         }
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n",
+                "=", "Average:", Math.round(total / CoreUtilisation.length * 100000.0) / 1000.0 + " %", "="));
+        if (CoreUtilisation.length > 1)
+            sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Migrations:", Migrations, "="));
         sb.append("======================================================================\n");
         System.out.print(sb);
     }
 
+    /**
+     This method prints the details of all processes in the ReadyQueue to the console: the process ID, waiting time,
+     turnaround time, and response time of each process. It is the query of all processes over a ResultStore, so the
+     rows are streamed through a buffered writer instead of being formatted into one string first.
+     */
+    public void PrintProcessesDetails() {
+        ResultStore results = new ResultStore(ReadyQueue, null, Metrics);
+        PrintResults("The Details For All Processes", results, results.all(), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     This method prints one page of the processes selected by a query over getResults() to the console, as a details
+     table with the given title.
+     *
+     * @param title the title of the table
+     * @param results the results the selection was made from
+     * @param selection the processes to print
+     * @param offset the position in the selection of the first process printed
+     * @param limit the largest number of processes printed
+     */
+    public static void PrintResults(String title, ResultStore results, ResultStore.Selection selection, int offset,
+                                    int limit) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        try {
+            results.write(title, selection, offset, limit, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Puts the rows back in the arrival order of the last run, which keeps processes with the same arrival time in
+    // the order they were added and the rows of the checkpoints where they were, then sorts in the rows added since
+    private void arrangeByArrivalTime() {
+        if (IDOrder != null) {
+            int[] order = new int[ReadyQueue.size()];
+            for (int i=0; i<IDOrder.length; i++)
+                order[IDOrder[i]] = i;
+            for (int i=IDOrder.length; i<order.length; i++)
+                order[i] = i;
+            ReadyQueue.permute(order);
+            IDOrder = null;
+        }
+        ReadyQueue.sortByArrivalTime();
+    }
+
+    // Drops the checkpoints after the given time and returns the last one left, or null if there is none. A
+    // checkpoint without a process arriving from its time on is dropped as well, since its clock was only advanced
+    // to that time for an arrival and a run without one ends at the last termination instead
+    private SchedulingEngine.Checkpoint latestCheckpoint(int time) {
+        while (!Checkpoints.isEmpty() && (Checkpoints.get(Checkpoints.size() - 1).getTime() > time
+                || Checkpoints.get(Checkpoints.size() - 1).getArrived() >= ReadyQueue.size()))
+            Checkpoints.remove(Checkpoints.size() - 1);
+        return Checkpoints.isEmpty() ? null : Checkpoints.get(Checkpoints.size() - 1);
+    }
+
+    // First time at which the next checkpoint is due: the next multiple of the interval after a checkpoint at the
+    // given time, or the first arrival if there is no checkpoint yet
+    private long nextCheckpoint(int time, boolean taken) {
+        if (CheckpointInterval == 0) return Long.MAX_VALUE;
+        if (!taken) return 0;
+        return time - time % CheckpointInterval + (long) CheckpointInterval;
+    }
+
+    // Fraction of the time up to the end of the schedule that a single CPU spent executing processes
+    private double busyFraction(int endTime) {
+        if (endTime == 0) return 0;
+        long busy = 0;
+        for (int i=0; i<ReadyQueue.size(); i++)
+            busy += ReadyQueue.getBurstTime(i);
+        return (double) busy / endTime;
+    }
+
      /**
       This method is responsible for printing the welcome screen of the SRTF Scheduler program to the console.
       The welcome screen consists of a title, section, and a list of names prepared by the team.
@@ -0,0 +1,250 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalInt;
+/**
+ * Answers queries about a schedule log written by ScheduleLogWriter without re-simulating it: which process ran
+ * at a given time, and the times of a given process. The file is memory-mapped and only the sparse indexes are
+ * read into memory, so a query binary-searches the index and decodes a single block of at most 256 entries
+ * however long the schedule is.
+ *
+ * Layout, all numbers big-endian: an 8-byte header (magic number "SRTL" and version), the segment blocks of every
+ * lane, the process blocks, the index entries (a 4-byte first start time or ID and an 8-byte block offset), one
+ * 28-byte directory entry per lane (data offset, segment count, end time and index offset) and a 40-byte footer
+ * (directory offset, number of lanes, process data offset, process count, process index offset and the magic
+ * number again).
+ */
+public class ScheduleLogReader implements Closeable {
+    public static final int MAGIC = 0x5352544C;             // "SRTL"
+    public static final int VERSION = 1;
+    public static final int BLOCK = 256;                    // Segments or processes per indexed block
+    static final int LANE_ENTRY_SIZE = 28;
+    static final int FOOTER_SIZE = 40;
+    private static final long WINDOW = 1L << 30;            // Bytes addressed by one mapping
+    private static final long OVERLAP = 1L << 16;           // Extra bytes mapped so no block crosses a window
+
+    private final FileChannel Channel;
+    private final MappedByteBuffer[] Windows;
+
+    private final int Lanes;
+    private final long[] LaneSegments;
+    private final int[] LaneEndTime;
+    private final int[][] LaneIndexKey;         // First start time of every block of every lane
+    private final long[][] LaneIndexOffset;
+    private final long Processes;
+    private final int[] ProcessIndexKey;        // First ID of every block of processes
+    private final long[] ProcessIndexOffset;
+
+    /**
+     * Opens a schedule log and reads its indexes.
+     *
+     * @param file the schedule log
+     * @throws IOException if the file cannot be read or is not a valid schedule log
+     */
+    public ScheduleLogReader(Path file) throws IOException {
+        Channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = Channel.size();
+            if (size < 8 + FOOTER_SIZE)
+                throw new IOException("Schedule log is truncated: " + size + " bytes");
+            Windows = new MappedByteBuffer[(int) ((size - 1) / WINDOW) + 1];
+            for (int i = 0; i < Windows.length; i++) {
+                long start = i * WINDOW;
+                Windows[i] = Channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW + OVERLAP, size - start));
+            }
+            if (getInt(0) != MAGIC || getInt(size - 4) != MAGIC)
+                throw new IOException("Not a schedule log: " + file);
+            if (getInt(4) != VERSION)
+                throw new IOException("Unsupported schedule log version " + getInt(4));
+
+            long footer = size - FOOTER_SIZE;
+            long directory = getLong(footer);
+            Lanes = getInt(footer + 8);
+            Processes = getLong(footer + 20);
+            long processIndex = getLong(footer + 28);
+
+            LaneSegments = new long[Lanes];
+            LaneEndTime = new int[Lanes];
+            LaneIndexKey = new int[Lanes][];
+            LaneIndexOffset = new long[Lanes][];
+            for (int lane = 0; lane < Lanes; lane++) {
+                long entry = directory + (long) LANE_ENTRY_SIZE * lane;
+                LaneSegments[lane] = getLong(entry + 8);
+                LaneEndTime[lane] = getInt(entry + 16);
+                int blocks = blocks(LaneSegments[lane]);
+                LaneIndexKey[lane] = new int[blocks];
+                LaneIndexOffset[lane] = new long[blocks];
+                readIndex(getLong(entry + 20), LaneIndexKey[lane], LaneIndexOffset[lane]);
+            }
+            ProcessIndexKey = new int[blocks(Processes)];
+            ProcessIndexOffset = new long[ProcessIndexKey.length];
+            readIndex(processIndex, ProcessIndexKey, ProcessIndexOffset);
+        } catch (IOException | RuntimeException e) {
+            Channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of lanes, one per core.
+     *
+     * @return the number of lanes
+     */
+    public int getLanes() {return Lanes;}
+
+    /**
+     * Returns the number of segments in a lane.
+     *
+     * @param lane the lane
+     * @return the number of segments
+     */
+    public long getSegmentCount(int lane) {return LaneSegments[lane];}
+
+    /**
+     * Returns the time at which the last segment of a lane ends.
+     *
+     * @param lane the lane
+     * @return the end time of the lane
+     */
+    public int getEndTime(int lane) {return LaneEndTime[lane];}
+
+    /**
+     * Returns the number of processes in the log.
+     *
+     * @return the number of processes
+     */
+    public long getProcessCount() {return Processes;}
+
+    /**
+     * Returns the process that was running at the given time on the first core.
+     *
+     * @param time the time
+     * @return the ID of the running process, or empty if the CPU was idle or the time is outside the schedule
+     */
+    public OptionalInt getProcessAt(int time) {
+        return getProcessAt(0, time);
+    }
+
+    /**
+     * Returns the process that was running at the given time on the given core. A process runs at time T when
+     * T lies in [start, end) of one of its segments.
+     *
+     * @param lane the lane of the core
+     * @param time the time
+     * @return the ID of the running process, or empty if the core was idle or the time is outside the schedule
+     */
+    public OptionalInt getProcessAt(int lane, int time) {
+        int block = floor(LaneIndexKey[lane], time);
+        if (block < 0 || time >= LaneEndTime[lane]) return OptionalInt.empty();
+        Cursor cursor = new Cursor(LaneIndexOffset[lane][block]);
+        long count = Math.min(BLOCK, LaneSegments[lane] - (long) block * BLOCK);
+        long start = LaneIndexKey[lane][block], tag = 0;
+        for (long i = 0; i < count; i++) {
+            long next = start + cursor.readVarint();
+            long nextTag = cursor.readVarint();
+            if (next > time) break;
+            start = next;
+            tag = nextTag;
+        }
+        return tag == 0 ? OptionalInt.empty() : OptionalInt.of(unzigzag(tag - 1));
+    }
+
+    /**
+     * Returns the times of the process with the given ID. The process is a standalone copy, so its waiting,
+     * turnaround and response times can be read like those of a scheduled process.
+     *
+     * @param id the process ID
+     * @return the process, or null if the log has no process with that ID
+     */
+    public Process getProcess(int id) {
+        int block = floor(ProcessIndexKey, id);
+        if (block < 0) return null;
+        Cursor cursor = new Cursor(ProcessIndexOffset[block]);
+        long count = Math.min(BLOCK, Processes - (long) block * BLOCK);
+        long current = ProcessIndexKey[block];
+        for (long i = 0; i < count; i++) {
+            current += cursor.readVarint();
+            int at = (int) cursor.readVarint();
+            int bt = (int) cursor.readVarint();
+            int response = (int) cursor.readVarint();
+            int run = (int) cursor.readVarint();
+            if (current > id) return null;
+            if (current == id) {
+                Process process = new Process(id, at, bt);
+                process.setExecutedTime(bt);
+                process.setStartingTime(at + response);
+                process.setFinishing_time(at + response + run);
+                return process;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Closes the file. The mappings stay valid until they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        Channel.close();
+    }
+
+    private void readIndex(long offset, int[] keys, long[] offsets) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = getInt(offset + 12L * i);
+            offsets[i] = getLong(offset + 12L * i + 4);
+        }
+    }
+
+    // Last block whose first key is at most the given key, or -1 if there is none
+    private static int floor(int[] keys, int key) {
+        int lo = 0, hi = keys.length - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= key) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static int blocks(long entries) {
+        return (int) ((entries + BLOCK - 1) / BLOCK);
+    }
+
+    private static int unzigzag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private int getInt(long offset) {return Windows[(int) (offset / WINDOW)].getInt((int) (offset % WINDOW));}
+
+    private long getLong(long offset) {return Windows[(int) (offset / WINDOW)].getLong((int) (offset % WINDOW));}
+
+    // Sequential varint decoder over the window that holds the start of a block
+    private final class Cursor {
+        private final MappedByteBuffer Window;
+        private int Position;
+
+        Cursor(long offset) {
+            Window = Windows[(int) (offset / WINDOW)];
+            Position = (int) (offset % WINDOW);
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = Window.get(Position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+/**
+ * Writes a finished schedule to a compact binary schedule log that ScheduleLogReader can query without
+ * re-simulating. The log holds the Gantt chart segments of every lane (one lane per core) followed by the
+ * times of every process in ascending ID order. Everything is written sequentially through a FileChannel.
+ *
+ * Segments and processes are stored in blocks of 256. Within a block, each segment is the varint-encoded delta of
+ * its start time from the previous one plus a varint tag (0 for idle, otherwise the zigzag-encoded process ID
+ * plus 1). Each process is the varint delta of its ID followed by its arrival time, burst time, response time and
+ * the time from its start to its finish. The first start time or ID of every block and the block's file offset
+ * go into a sparse index, which is written with the lane directory and a fixed-size footer when the log is
+ * closed. See ScheduleLogReader for the exact layout.
+ */
+public class ScheduleLogWriter implements Closeable {
+    private final FileChannel Channel;
+    private final ByteBuffer Buffer = ByteBuffer.allocateDirect(1 << 16);
+    private long Flushed = 0;                   // Bytes already handed to the channel
+
+    private int Lanes = 0;
+    private boolean LaneOpen = false;
+    private long[] LaneDataOffset = new long[4], LaneSegments = new long[4];
+    private int[] LaneEndTime = new int[4], LaneFirstIndex = new int[4];
+    private int PreviousStart;
+
+    private int[] IndexKey = new int[64];       // First start time or ID of every block
+    private long[] IndexOffset = new long[64];  // File offset of every block
+    private int IndexEntries = 0;
+
+    private long ProcessDataOffset = -1;        // -1 until the first process is written
+    private int ProcessFirstIndex;
+    private long Processes = 0;
+    private int PreviousID;
+
+    /**
+     * Creates the log file, replacing any existing file, and writes its header.
+     *
+     * @param file the log file to create
+     * @throws IOException if the file cannot be written
+     */
+    public ScheduleLogWriter(Path file) throws IOException {
+        Channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Buffer.putInt(ScheduleLogReader.MAGIC);
+        Buffer.putInt(ScheduleLogReader.VERSION);
+    }
+
+    /**
+     * Writes every lane of a Gantt chart, as recorded by SRTFScheduler.getGanttCharts().
+     *
+     * @param lanes the chart of every core, in core order
+     * @throws IOException if the file cannot be written
+     */
+    public void writeLanes(GanttChart[] lanes) throws IOException {
+        for (GanttChart lane : lanes) {
+            for (int i = 0; i < lane.size(); i++) {
+                if (lane.isIdle(i)) addIdleSegment(lane.getStart(i));
+                else addSegment(lane.getStart(i), lane.getProcessID(i));
+            }
+            endLane(lane.getEndTime());
+        }
+    }
+
+    /**
+     * Adds a segment in which the given process runs to the current lane. Segments of a lane must be added in
+     * order of their start time.
+     *
+     * @param start the time the segment starts
+     * @param id the ID of the process
+     * @throws IOException if the file cannot be written
+     */
+    public void addSegment(int start, int id) throws IOException {
+        writeSegment(start, zigzag(id) + 1);
+    }
+
+    /**
+     * Adds a segment in which no process runs to the current lane.
+     *
+     * @param start the time the segment starts
+     * @throws IOException if the file cannot be written
+     */
+    public void addIdleSegment(int start) throws IOException {
+        writeSegment(start, 0);
+    }
+
+    /**
+     * Ends the current lane. The next segment added starts a new lane.
+     *
+     * @param endTime the time at which the last segment of the lane ends
+     * @throws IOException if the file cannot be written
+     */
+    public void endLane(int endTime) throws IOException {
+        if (!LaneOpen) openLane();
+        LaneEndTime[Lanes - 1] = endTime;
+        LaneOpen = false;
+    }
+
+    /**
+     * Adds the times of a terminated process. Processes are added after all lanes, in ascending ID order.
+     *
+     * @param id the ID of the process
+     * @param at the arrival time
+     * @param bt the burst time
+     * @param start the time the process first ran
+     * @param finish the time the process terminated
+     * @throws IOException if the file cannot be written
+     */
+    public void addProcess(int id, int at, int bt, int start, int finish) throws IOException {
+        if (LaneOpen) throw new IllegalStateException("The current lane must be ended before processes are added");
+        if (at < 0 || bt <= 0 || start < at || finish < start)
+            throw new IllegalArgumentException("Invalid times for process " + id);
+        if (ProcessDataOffset == -1) {
+            ProcessDataOffset = position();
+            ProcessFirstIndex = IndexEntries;
+        }
+        if (Processes % ScheduleLogReader.BLOCK == 0) {
+            addIndexEntry(id);
+            PreviousID = id;
+        } else if (id <= PreviousID) {
+            throw new IllegalArgumentException("Processes must be added in ascending ID order: " + id);
+        }
+        ensureRoom(5 * 10);
+        putVarint((long) id - PreviousID);
+        putVarint(at);
+        putVarint(bt);
+        putVarint(start - at);
+        putVarint(finish - start);
+        PreviousID = id;
+        Processes++;
+    }
+
+    /**
+     * Writes every process of a table, which must be ordered by process ID and fully scheduled.
+     *
+     * @param table the process table
+     * @throws IOException if the file cannot be written
+     */
+    public void writeProcesses(ProcessTable table) throws IOException {
+        for (int i = 0; i < table.size(); i++)
+            addProcess(table.getProcessID(i), table.getArrivalTime(i), table.getBurstTime(i),
+                    table.getStartingTime(i), table.getFinishingTime(i));
+    }
+
+    /**
+     * Writes the sparse indexes, the lane directory and the footer, and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (LaneOpen) endLane(PreviousStart);
+            if (ProcessDataOffset == -1) {
+                ProcessDataOffset = position();
+                ProcessFirstIndex = IndexEntries;
+            }
+            long indexOffset = position();
+            for (int i = 0; i < IndexEntries; i++) {
+                ensureRoom(12);
+                Buffer.putInt(IndexKey[i]);
+                Buffer.putLong(IndexOffset[i]);
+            }
+            long directoryOffset = position();
+            for (int lane = 0; lane < Lanes; lane++) {
+                ensureRoom(ScheduleLogReader.LANE_ENTRY_SIZE);
+                Buffer.putLong(LaneDataOffset[lane]);
+                Buffer.putLong(LaneSegments[lane]);
+                Buffer.putInt(LaneEndTime[lane]);
+                Buffer.putLong(indexOffset + 12L * LaneFirstIndex[lane]);
+            }
+            ensureRoom(ScheduleLogReader.FOOTER_SIZE);
+            Buffer.putLong(directoryOffset);
+            Buffer.putInt(Lanes);
+            Buffer.putLong(ProcessDataOffset);
+            Buffer.putLong(Processes);
+            Buffer.putLong(indexOffset + 12L * ProcessFirstIndex);
+            Buffer.putInt(ScheduleLogReader.MAGIC);
+            flush();
+        } finally {
+            Channel.close();
+        }
+    }
+
+    private void writeSegment(int start, long tag) throws IOException {
+        if (ProcessDataOffset != -1) throw new IllegalStateException("Segments must be added before processes");
+        if (!LaneOpen) openLane();
+        int lane = Lanes - 1;
+        if (LaneSegments[lane] % ScheduleLogReader.BLOCK == 0) {
+            addIndexEntry(start);
+            PreviousStart = start;
+        } else if (start < PreviousStart) {
+            throw new IllegalArgumentException("Segments must be added in order of their start time: " + start);
+        }
+        ensureRoom(2 * 10);
+        putVarint((long) start - PreviousStart);
+        putVarint(tag);
+        PreviousStart = start;
+        LaneSegments[lane]++;
+    }
+
+    private void openLane() {
+        if (Lanes == LaneDataOffset.length) {
+            LaneDataOffset = Arrays.copyOf(LaneDataOffset, Lanes * 2);
+            LaneSegments = Arrays.copyOf(LaneSegments, Lanes * 2);
+            LaneEndTime = Arrays.copyOf(LaneEndTime, Lanes * 2);
+            LaneFirstIndex = Arrays.copyOf(LaneFirstIndex, Lanes * 2);
+        }
+        LaneDataOffset[Lanes] = position();
+        LaneSegments[Lanes] = 0;
+        LaneFirstIndex[Lanes] = IndexEntries;
+        Lanes++;
+        LaneOpen = true;
+    }
+
+    private void addIndexEntry(int key) {
+        if (IndexEntries == IndexKey.length) {
+            IndexKey = Arrays.copyOf(IndexKey, IndexEntries * 2);
+            IndexOffset = Arrays.copyOf(IndexOffset, IndexEntries * 2);
+        }
+        IndexKey[IndexEntries] = key;
+        IndexOffset[IndexEntries] = position();
+        IndexEntries++;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, the high bit set on every byte but the last
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            Buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        Buffer.put((byte) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private long position() {return Flushed + Buffer.position();}
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (Buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        Buffer.flip();
+        while (Buffer.hasRemaining())
+            Flushed += Channel.write(Buffer);
+        Buffer.clear();
+    }
+}
@@ -0,0 +1,199 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * Live instrumentation of a running schedule. An engine with a probe reports every dispatch, preemption and
+ * completion to it; the probe counts them, and on every sampled event publishes its counters for JMX and emits a
+ * JDK Flight Recorder event. Engines without a probe skip instrumentation entirely, so it costs nothing when off.
+ *
+ * The counters are kept in plain fields and only copied to the volatile fields read by JMX on sampled events, so
+ * with the default interval of 1024 the engine pays a few increments per event. The JFR events are "srtf.Dispatch",
+ * "srtf.Preemption" and "srtf.Completion"; they are recorded only when a recording enables them, for example with
+ * "java -XX:StartFlightRecording ...".
+ */
+public class SchedulerProbe implements SchedulerProbeMBean, AutoCloseable {
+    public static final int DEFAULT_SAMPLE_INTERVAL = 1024;
+
+    private final int SampleMask;               // An event is sampled when the event count is a multiple of the interval
+    private long Events = 0, Dispatches = 0, Preemptions = 0, Completed = 0;
+
+    private volatile int PublishedTime, PublishedReady;
+    private volatile long PublishedDispatches, PublishedPreemptions, PublishedCompleted;
+
+    private int RateTime;                       // Simulated time and wall clock time of the previous rate reading
+    private long RateNanos = System.nanoTime();
+    private ObjectName Name;                    // Name the probe is registered under, null if it is not registered
+
+    /**
+     * Constructs a probe that samples one event in every 1024.
+     */
+    public SchedulerProbe() {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Constructs a probe that samples one event in every given number of events.
+     *
+     * @param sampleInterval the sample interval, rounded up to a power of two; 1 samples every event
+     */
+    public SchedulerProbe(int sampleInterval) {
+        if (sampleInterval < 1) throw new IllegalArgumentException("The sample interval must be at least 1: " + sampleInterval);
+        int interval = Integer.highestOneBit(sampleInterval);
+        if (interval < sampleInterval && interval < (1 << 30)) interval <<= 1;
+        SampleMask = interval - 1;
+    }
+
+    /**
+     * Registers the probe with the platform MBean server under "SRTFScheduler:type=SchedulerProbe,name=&lt;name&gt;".
+     *
+     * @param name the name that tells this probe apart from others
+     * @throws JMException if the probe cannot be registered, for example because the name is taken
+     */
+    public void register(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("SRTFScheduler:type=SchedulerProbe,name=" + ObjectName.quote(name));
+        server.registerMBean(this, objectName);
+        Name = objectName;
+    }
+
+    /**
+     * Unregisters the probe from the platform MBean server if it was registered.
+     */
+    @Override
+    public void close() {
+        if (Name == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(Name);
+        } catch (JMException e) {
+            // Already unregistered
+        }
+        Name = null;
+    }
+
+    /**
+     * Called by an engine when it puts a process on a core.
+     *
+     * @param processID the ID of the dispatched process
+     * @param preemptedID the ID of the process it preempted, or -1 if the core was free
+     * @param time the simulated time
+     * @param ready the number of processes waiting for a core afterwards
+     */
+    public void dispatched(int processID, int preemptedID, int time, int ready) {
+        Dispatches++;
+        if (preemptedID != -1) Preemptions++;
+        if ((++Events & SampleMask) != 0) return;
+        publish(time, ready);
+        if (preemptedID != -1) {
+            PreemptionEvent event = new PreemptionEvent();
+            if (event.shouldCommit()) {
+                event.ProcessID = preemptedID;
+                event.PreemptedBy = processID;
+                event.SimulatedTime = time;
+                event.commit();
+            }
+        }
+        DispatchEvent event = new DispatchEvent();
+        if (event.shouldCommit()) {
+            event.ProcessID = processID;
+            event.SimulatedTime = time;
+            event.ReadySetSize = ready;
+            event.commit();
+        }
+    }
+
+    /**
+     * Called by an engine when a process terminates.
+     *
+     * @param processID the ID of the terminated process
+     * @param time the simulated time
+     * @param ready the number of processes waiting for a core
+     */
+    public void completed(int processID, int time, int ready) {
+        Completed++;
+        if ((++Events & SampleMask) != 0) return;
+        publish(time, ready);
+        CompletionEvent event = new CompletionEvent();
+        if (event.shouldCommit()) {
+            event.ProcessID = processID;
+            event.SimulatedTime = time;
+            event.ReadySetSize = ready;
+            event.commit();
+        }
+    }
+
+    /**
+     * Publishes the current counters for JMX, whether or not the last event was sampled. Engines call this when
+     * they are drained so the final values are visible.
+     *
+     * @param time the simulated time
+     * @param ready the number of processes waiting for a core
+     */
+    public void publish(int time, int ready) {
+        PublishedDispatches = Dispatches;
+        PublishedPreemptions = Preemptions;
+        PublishedCompleted = Completed;
+        PublishedReady = ready;
+        PublishedTime = time;
+    }
+
+    @Override
+    public int getSimulatedTime() {return PublishedTime;}
+
+    @Override
+    public int getReadySetSize() {return PublishedReady;}
+
+    @Override
+    public long getCompleted() {return PublishedCompleted;}
+
+    @Override
+    public long getPreemptions() {return PublishedPreemptions;}
+
+    @Override
+    public long getDispatches() {return PublishedDispatches;}
+
+    @Override
+    public synchronized double getTicksPerSecond() {
+        int time = PublishedTime;
+        long now = System.nanoTime();
+        double rate = now == RateNanos ? 0 : (time - RateTime) * 1e9 / (now - RateNanos);
+        RateTime = time;
+        RateNanos = now;
+        return rate;
+    }
+
+    @Name("srtf.Dispatch")
+    @Label("Dispatch")
+    @Category("SRTF Scheduler")
+    @Description("A process was put on a core")
+    static final class DispatchEvent extends Event {
+        @Label("Process ID") int ProcessID;
+        @Label("Simulated Time") int SimulatedTime;
+        @Label("Ready Set Size") int ReadySetSize;
+    }
+
+    @Name("srtf.Preemption")
+    @Label("Preemption")
+    @Category("SRTF Scheduler")
+    @Description("A running process was taken off its core before it finished")
+    static final class PreemptionEvent extends Event {
+        @Label("Process ID") int ProcessID;
+        @Label("Preempted By") int PreemptedBy;
+        @Label("Simulated Time") int SimulatedTime;
+    }
+
+    @Name("srtf.Completion")
+    @Label("Completion")
+    @Category("SRTF Scheduler")
+    @Description("A process terminated")
+    static final class CompletionEvent extends Event {
+        @Label("Process ID") int ProcessID;
+        @Label("Simulated Time") int SimulatedTime;
+        @Label("Ready Set Size") int ReadySetSize;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Management interface of a SchedulerProbe, readable with JConsole or any other JMX client while a schedule runs.
+ * The values are published by the engine every few events, so they may lag the simulation slightly.
+ */
+public interface SchedulerProbeMBean {
+    /**
+     * Returns the simulated time the engine has reached.
+     *
+     * @return the current simulated time
+     */
+    int getSimulatedTime();
+
+    /**
+     * Returns the number of processes that have arrived and are waiting for a core.
+     *
+     * @return the size of the ready set
+     */
+    int getReadySetSize();
+
+    /**
+     * Returns the number of processes that have terminated.
+     *
+     * @return the number of completed processes
+     */
+    long getCompleted();
+
+    /**
+     * Returns the number of times a running process was preempted.
+     *
+     * @return the number of preemptions
+     */
+    long getPreemptions();
+
+    /**
+     * Returns the number of dispatches, that is the number of times a process was put on a core.
+     *
+     * @return the number of dispatches
+     */
+    long getDispatches();
+
+    /**
+     * Returns how fast the simulation advances: simulated time units per second of wall clock time since the
+     * previous call, or since the probe was created for the first call.
+     *
+     * @return the simulated ticks per second
+     */
+    double getTicksPerSecond();
+}
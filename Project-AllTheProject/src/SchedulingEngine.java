@@ -0,0 +1,345 @@
+import java.util.Arrays;
+/**
+ * Event-driven single-CPU simulation over the rows of a ProcessTable, with the selection rule supplied by a
+ * SchedulingPolicy. Processes are handed to the engine in nondecreasing arrival time and the clock only stops at
+ * arrivals, completions and expired time slices. A decision at time t is only made once the engine knows that no
+ * more processes arrive at t, that is when a later arrival is given or when the engine is drained, so the engine
+ * can be fed incrementally. Every operation on the ready set is delegated to the policy.
+ *
+ * A context switch can be given a cost in simulated time. Every dispatch of a different process then keeps the
+ * CPU busy for that long before the process executes; the switch is part of the process's Gantt chart segment and
+ * cannot be interrupted, and decisions postponed by it are taken as soon as it completes.
+ *
+ * The state of a schedule can be saved as a Checkpoint and restored later, so a schedule whose input changed only
+ * after some time can be resumed from a checkpoint before that time instead of being simulated from the start.
+ */
+public class SchedulingEngine {
+    private final ProcessTable Table;
+    private final SchedulingPolicy Policy;      // Owns the ready set and picks the next process
+    private CompletionListener Listener;        // Notified when a process terminates, may be null
+    private GanttChart Gantt;                   // Records the schedule as segments, may be null
+    private SchedulingMetrics Metrics;          // Updated at every dispatch and termination, may be null
+    private SchedulerProbe Probe;               // Live instrumentation, null when it is off
+
+    private int CurrentTime = 0;
+    private int Running = -1;                   // Row of the running process, -1 if the CPU is free
+    private long SliceEnd;                      // Time the time slice of the running process expires
+    private int SwitchCost = 0;                 // Simulated time a context switch takes
+    private long SwitchEnd;                     // Time the context switch in progress completes
+    private boolean Idle = false;               // An idle (NP) period has already been reported
+    private int IdleSince;                      // Time the current idle period started
+    private int Completed = 0;
+    private int Arrived = 0;                    // Number of processes handed to the engine
+
+    /**
+     * Constructs an engine that schedules rows of the given table with the given policy.
+     *
+     * @param table the process table the rows belong to
+     * @param policy the scheduling policy, which is reset for the table and must not be shared with another engine
+     */
+    public SchedulingEngine(ProcessTable table, SchedulingPolicy policy) {
+        Table = table;
+        Policy = policy;
+        Policy.reset(table);
+    }
+
+    /**
+     * Sets the simulated time each context switch takes. The default is 0, which makes switches free.
+     *
+     * @param cost the switch cost, not negative
+     */
+    public void setContextSwitchCost(int cost) {
+        if (cost < 0) throw new IllegalArgumentException("The context switch cost must not be negative: " + cost);
+        SwitchCost = cost;
+    }
+
+    /**
+     * Returns the scheduling policy of the engine.
+     *
+     * @return the scheduling policy
+     */
+    public SchedulingPolicy getPolicy() {return Policy;}
+
+    /**
+     * Sets the listener that is notified when a process terminates.
+     *
+     * @param listener the completion listener, or null for none
+     */
+    public void setCompletionListener(CompletionListener listener) {Listener = listener;}
+
+    /**
+     * Sets the chart the schedule is recorded into.
+     *
+     * @param chart the Gantt chart, or null to record nothing
+     */
+    public void setGanttChart(GanttChart chart) {Gantt = chart;}
+
+    /**
+     * Sets the metrics collector that is updated as the schedule runs.
+     *
+     * @param metrics the metrics collector, or null for none
+     */
+    public void setMetrics(SchedulingMetrics metrics) {Metrics = metrics;}
+
+    /**
+     * Sets the probe that live instrumentation is reported to.
+     *
+     * @param probe the probe, or null to turn instrumentation off
+     */
+    public void setProbe(SchedulerProbe probe) {Probe = probe;}
+
+    /**
+     * Returns the current simulated time.
+     *
+     * @return the current simulated time
+     */
+    public int getCurrentTime() {return CurrentTime;}
+
+    /**
+     * Returns the number of processes that have terminated.
+     *
+     * @return the number of completed processes
+     */
+    public int getCompleted() {return Completed;}
+
+    /**
+     * Returns the number of processes that have arrived and not terminated yet.
+     *
+     * @return the number of live processes
+     */
+    public int getLiveProcesses() {return Policy.size() + (Running == -1 ? 0 : 1);}
+
+    /**
+     * Hands a process to the engine. Its arrival time must not be earlier than the current time, and the
+     * simulation is advanced to that arrival time first.
+     *
+     * @param row the row of the process in the table
+     */
+    public void arrive(int row) {
+        int at = Table.getArrivalTime(row);
+        if (at < CurrentTime)
+            throw new IllegalArgumentException("Arrival time " + at + " is before the current time " + CurrentTime);
+        advanceTo(at);
+        Policy.arrived(row);
+        Arrived++;
+    }
+
+    /**
+     * Simulates every event before the given time. The decision at the given time itself is left open, since
+     * more processes may still arrive then.
+     *
+     * @param time the time to advance to
+     */
+    public void advanceTo(int time) {
+        while (CurrentTime < time) {
+            // No process is ready: the CPU stays idle until the given time
+            if (Running == -1 && Policy.isEmpty()) {
+                if (!Idle) {
+                    if (Gantt != null)
+                        Gantt.addIdle(CurrentTime);
+                    IdleSince = CurrentTime;
+                }
+                Idle = true;
+                CurrentTime = time;
+                if (Gantt != null)
+                    Gantt.setEndTime(CurrentTime);
+                return;
+            }
+            dispatch();
+            run(time);
+        }
+    }
+
+    /**
+     * Saves the state of the schedule at the current time: the clock, the running process, the ready set and the
+     * remaining and starting times of the processes that have arrived and not terminated. Processes handed to the
+     * engine later, even with an arrival time equal to the current time, are not part of the checkpoint, so
+     * advanceTo() the time of the next arrival and take the checkpoint before handing it over.
+     *
+     * @return the checkpoint, whose size is proportional to the number of live processes
+     */
+    public Checkpoint checkpoint() {
+        SchedulingPolicy.State state = Policy.saveState();
+        int[] waiting = state.getWaiting();
+        int[] rows = Arrays.copyOf(waiting, waiting.length + (Running == -1 ? 0 : 1));
+        if (Running != -1) rows[waiting.length] = Running;
+        int[] remaining = new int[rows.length], starting = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            remaining[i] = Table.getRemainingTime(rows[i]);
+            starting[i] = Table.getStartingTime(rows[i]);
+        }
+        Checkpoint checkpoint = new Checkpoint(CurrentTime, Arrived, state, rows, remaining, starting);
+        checkpoint.Running = Running;
+        checkpoint.SliceEnd = SliceEnd;
+        checkpoint.SwitchEnd = SwitchEnd;
+        checkpoint.Idle = Idle;
+        checkpoint.IdleSince = IdleSince;
+        checkpoint.Completed = Completed;
+        checkpoint.GanttSize = Gantt == null ? -1 : Gantt.size();
+        if (Metrics != null) {
+            checkpoint.ContextSwitches = Metrics.getContextSwitches();
+            checkpoint.Preemptions = Metrics.getPreemptions();
+            checkpoint.IdleTime = Metrics.getIdleTime();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Rolls the schedule back to a checkpoint taken by an engine over the same table and the same kind of policy.
+     * The processes that had terminated by then must still hold their times in the table, and those that arrived
+     * after it must be reset and handed to the engine again. The Gantt chart is cut back to the checkpoint, and
+     * the metrics collector is reset to the context switches, preemptions and idle time of the checkpoint;
+     * completions before the checkpoint are not recorded again, the caller records them from the table if needed.
+     *
+     * @param checkpoint the checkpoint to resume from
+     */
+    public void restore(Checkpoint checkpoint) {
+        if (Gantt != null && checkpoint.GanttSize == -1)
+            throw new IllegalStateException("The checkpoint was taken without a Gantt chart");
+        CurrentTime = checkpoint.Time;
+        Arrived = checkpoint.Arrived;
+        Running = checkpoint.Running;
+        SliceEnd = checkpoint.SliceEnd;
+        SwitchEnd = checkpoint.SwitchEnd;
+        Idle = checkpoint.Idle;
+        IdleSince = checkpoint.IdleSince;
+        Completed = checkpoint.Completed;
+        for (int i = 0; i < checkpoint.Rows.length; i++) {
+            Table.setRemainingTime(checkpoint.Rows[i], checkpoint.Remaining[i]);
+            Table.setStartingTime(checkpoint.Rows[i], checkpoint.Starting[i]);
+            Table.setFinishingTime(checkpoint.Rows[i], -1);
+        }
+        // The policy reads the restored remaining times when it rebuilds its ready set
+        Policy.restoreState(checkpoint.PolicyState);
+        if (Gantt != null)
+            Gantt.truncate(checkpoint.GanttSize, checkpoint.Time);
+        if (Metrics != null) {
+            Metrics.reset();
+            Metrics.recordCounters(checkpoint.ContextSwitches, checkpoint.Preemptions, checkpoint.IdleTime);
+        }
+    }
+
+    /**
+     * Runs every process that has arrived to completion.
+     */
+    public void drain() {
+        while (Running != -1 || !Policy.isEmpty()) {
+            dispatch();
+            run(Integer.MAX_VALUE);
+        }
+        if (Probe != null)
+            Probe.publish(CurrentTime, 0);
+    }
+
+    // Dispatch the next process chosen by the policy if the CPU is free, the time slice of the running process
+    // has expired, or the policy preempts it. Nothing is decided while a context switch is in progress
+    private void dispatch() {
+        if (CurrentTime < SwitchEnd) return;
+        int previous = Running;
+        boolean preempted = false;          // An expired time slice is not a preemption
+        if (previous != -1) {
+            if (CurrentTime >= SliceEnd)
+                Policy.expired(previous);
+            else if (Policy.isEmpty() || !Policy.preempts(previous))
+                return;
+            else {
+                Policy.preempted(previous);
+                preempted = true;
+            }
+        }
+        Running = Policy.next();
+        // An expired process that is chosen again simply carries on, without a context switch
+        if (Running == previous) {
+            SliceEnd = CurrentTime + (long) Policy.getTimeSlice(Running);
+            return;
+        }
+        SwitchEnd = CurrentTime + (long) SwitchCost;
+        SliceEnd = SwitchEnd + Policy.getTimeSlice(Running);
+        if (Metrics != null) {
+            Metrics.recordContextSwitch();
+            if (preempted) Metrics.recordPreemption();
+            if (Idle) Metrics.recordIdle(CurrentTime - IdleSince);
+        }
+        if (Probe != null)
+            Probe.dispatched(Table.getProcessID(Running), preempted ? Table.getProcessID(previous) : -1,
+                    CurrentTime, Policy.size());
+        Idle = false;
+        if (Gantt != null)
+            Gantt.add(CurrentTime, Table.getProcessID(Running));
+        if (Table.getStartingTime(Running) == -1)
+            Table.setStartingTime(Running, (int) SwitchEnd);
+    }
+
+    // Run the process until it finishes, its time slice expires or the given time, whichever comes first. A
+    // context switch in progress is completed first, after which the policy may decide again. The clock cannot
+    // go past Integer.MAX_VALUE, so work left at that time can never be done
+    private void run(int limit) {
+        if (CurrentTime == Integer.MAX_VALUE)
+            throw new ArithmeticException("The schedule does not end by time " + Integer.MAX_VALUE);
+        if (CurrentTime < SwitchEnd) {
+            CurrentTime = (int) Math.min(SwitchEnd, limit);
+            if (Gantt != null)
+                Gantt.setEndTime(CurrentTime);
+            return;
+        }
+        int remaining = Table.getRemainingTime(Running);
+        int runFor = (int) Math.min(Math.min(remaining, limit - CurrentTime), SliceEnd - CurrentTime);
+        CurrentTime += runFor;
+        Table.setRemainingTime(Running, remaining - runFor);
+        if (Gantt != null)
+            Gantt.setEndTime(CurrentTime);
+
+        // If the process has finished execution, update its finishing time and free the CPU
+        if (remaining == runFor) {
+            int row = Running;
+            Table.setFinishingTime(row, CurrentTime);
+            Running = -1;
+            Completed++;
+            if (Metrics != null) {
+                int at = Table.getArrivalTime(row);
+                Metrics.recordCompletion(Table.getProcessID(row), CurrentTime - at,
+                        CurrentTime - at - Table.getBurstTime(row), Table.getStartingTime(row) - at);
+            }
+            if (Probe != null)
+                Probe.completed(Table.getProcessID(row), CurrentTime, Policy.size());
+            if (Listener != null)
+                Listener.processCompleted(new Process(Table, row));
+        }
+    }
+
+    /**
+     * The saved state of a schedule at one point in time, see checkpoint() and restore().
+     */
+    public static final class Checkpoint {
+        private final int Time, Arrived;
+        private final SchedulingPolicy.State PolicyState;
+        private final int[] Rows, Remaining, Starting;      // Live processes and their times
+        private int Running, IdleSince, Completed, GanttSize;
+        private long SliceEnd, SwitchEnd, ContextSwitches, Preemptions, IdleTime;
+        private boolean Idle;
+
+        private Checkpoint(int time, int arrived, SchedulingPolicy.State policyState, int[] rows, int[] remaining,
+                           int[] starting) {
+            Time = time;
+            Arrived = arrived;
+            PolicyState = policyState;
+            Rows = rows;
+            Remaining = remaining;
+            Starting = starting;
+        }
+
+        /**
+         * Returns the simulated time of the checkpoint.
+         *
+         * @return the time the checkpoint was taken at
+         */
+        public int getTime() {return Time;}
+
+        /**
+         * Returns the number of processes that had been handed to the engine when the checkpoint was taken.
+         *
+         * @return the number of arrived processes
+         */
+        public int getArrived() {return Arrived;}
+    }
+}
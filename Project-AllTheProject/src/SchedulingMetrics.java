@@ -0,0 +1,229 @@
+/**
+ * Collects the metrics of a schedule while it runs: histograms of the turnaround, waiting and response times of
+ * every terminated process, the number of context switches and preemptions, and the time the CPU cores spent
+ * idle. The engines update it as each process terminates, so the memory used is the same for ten processes or
+ * ten billion, and the tail percentiles are available without keeping the processes around. The IDs of the
+ * processes with the worst waiting and turnaround times are kept in bounded heaps along the way.
+ */
+public class SchedulingMetrics {
+    public static final int DEFAULT_TOP_K = 10;
+
+    private final LatencyHistogram TurnAroundTime = new LatencyHistogram();
+    private final LatencyHistogram WaitingTime = new LatencyHistogram();
+    private final LatencyHistogram ResponseTime = new LatencyHistogram();
+    private long ContextSwitches = 0;           // Times a process was put on a core
+    private long Preemptions = 0;               // Times a running process was taken off its core unfinished
+    private long IdleTime = 0;                  // Total time cores spent without a process
+    private TopKHeap WorstWaitingTime = new TopKHeap(DEFAULT_TOP_K);
+    private TopKHeap WorstTurnAroundTime = new TopKHeap(DEFAULT_TOP_K);
+
+    /**
+     * Records a process that has terminated.
+     *
+     * @param turnAroundTime the time from its arrival to its termination
+     * @param waitingTime the time it spent waiting for a core
+     * @param responseTime the time from its arrival to its first dispatch
+     */
+    public void recordCompletion(int turnAroundTime, int waitingTime, int responseTime) {
+        TurnAroundTime.record(turnAroundTime);
+        WaitingTime.record(waitingTime);
+        ResponseTime.record(responseTime);
+    }
+
+    /**
+     * Records a process that has terminated and keeps its ID if its waiting or turnaround time is among the worst.
+     *
+     * @param id the ID of the process
+     * @param turnAroundTime the time from its arrival to its termination
+     * @param waitingTime the time it spent waiting for a core
+     * @param responseTime the time from its arrival to its first dispatch
+     */
+    public void recordCompletion(int id, int turnAroundTime, int waitingTime, int responseTime) {
+        recordCompletion(turnAroundTime, waitingTime, responseTime);
+        WorstWaitingTime.offer(waitingTime, id);
+        WorstTurnAroundTime.offer(turnAroundTime, id);
+    }
+
+    /**
+     * Sets how many processes with the worst waiting and turnaround times are kept, and clears those kept so far.
+     * The default is 10.
+     *
+     * @param k the number of processes to keep, not negative
+     */
+    public void setTopK(int k) {
+        WorstWaitingTime = new TopKHeap(k);
+        WorstTurnAroundTime = new TopKHeap(k);
+    }
+
+    /**
+     * Records that a process was put on a core, which is one segment of the Gantt chart.
+     */
+    public void recordContextSwitch() {ContextSwitches++;}
+
+    /**
+     * Records that a running process was taken off its core before it finished.
+     */
+    public void recordPreemption() {Preemptions++;}
+
+    /**
+     * Records time a core spent without a process.
+     *
+     * @param duration the length of the idle period
+     */
+    public void recordIdle(long duration) {IdleTime += duration;}
+
+    /**
+     * Records several context switches, preemptions and idle periods at once, for example those of the part of a
+     * schedule before the checkpoint it is resumed from.
+     *
+     * @param contextSwitches the number of context switches
+     * @param preemptions the number of preemptions
+     * @param idleTime the total idle time
+     */
+    public void recordCounters(long contextSwitches, long preemptions, long idleTime) {
+        ContextSwitches += contextSwitches;
+        Preemptions += preemptions;
+        IdleTime += idleTime;
+    }
+
+    /**
+     * Records the completions collected in histograms elsewhere, for example by a worker JVM that scheduled a
+     * shard of the workload.
+     *
+     * @param turnAroundTime the histogram of the turnaround times
+     * @param waitingTime the histogram of the waiting times
+     * @param responseTime the histogram of the response times
+     */
+    public void recordHistograms(LatencyHistogram turnAroundTime, LatencyHistogram waitingTime,
+                                 LatencyHistogram responseTime) {
+        TurnAroundTime.add(turnAroundTime);
+        WaitingTime.add(waitingTime);
+        ResponseTime.add(responseTime);
+    }
+
+    /**
+     * Adds the metrics of another schedule to these, for example of a shard of the same workload.
+     *
+     * @param other the metrics to add
+     */
+    public void add(SchedulingMetrics other) {
+        TurnAroundTime.add(other.TurnAroundTime);
+        WaitingTime.add(other.WaitingTime);
+        ResponseTime.add(other.ResponseTime);
+        ContextSwitches += other.ContextSwitches;
+        Preemptions += other.Preemptions;
+        IdleTime += other.IdleTime;
+        WorstWaitingTime.add(other.WorstWaitingTime);
+        WorstTurnAroundTime.add(other.WorstTurnAroundTime);
+    }
+
+    /**
+     * Clears every metric, so the collector can be used for another schedule.
+     */
+    public void reset() {
+        TurnAroundTime.reset();
+        WaitingTime.reset();
+        ResponseTime.reset();
+        ContextSwitches = 0;
+        Preemptions = 0;
+        IdleTime = 0;
+        WorstWaitingTime.clear();
+        WorstTurnAroundTime.clear();
+    }
+
+    /**
+     * Returns the number of processes that have terminated.
+     *
+     * @return the number of completed processes
+     */
+    public long getCompleted() {return TurnAroundTime.getCount();}
+
+    /**
+     * Returns the histogram of the turnaround times.
+     *
+     * @return the turnaround time histogram
+     */
+    public LatencyHistogram getTurnAroundTime() {return TurnAroundTime;}
+
+    /**
+     * Returns the histogram of the waiting times.
+     *
+     * @return the waiting time histogram
+     */
+    public LatencyHistogram getWaitingTime() {return WaitingTime;}
+
+    /**
+     * Returns the histogram of the response times.
+     *
+     * @return the response time histogram
+     */
+    public LatencyHistogram getResponseTime() {return ResponseTime;}
+
+    /**
+     * Returns the processes with the worst waiting times.
+     *
+     * @return the heap of the worst waiting times
+     */
+    public TopKHeap getWorstWaitingTime() {return WorstWaitingTime;}
+
+    /**
+     * Returns the processes with the worst turnaround times.
+     *
+     * @return the heap of the worst turnaround times
+     */
+    public TopKHeap getWorstTurnAroundTime() {return WorstTurnAroundTime;}
+
+    /**
+     * Returns the number of context switches, that is the number of times a process was put on a core.
+     *
+     * @return the number of context switches
+     */
+    public long getContextSwitches() {return ContextSwitches;}
+
+    /**
+     * Returns the number of times a running process was preempted.
+     *
+     * @return the number of preemptions
+     */
+    public long getPreemptions() {return Preemptions;}
+
+    /**
+     * Returns the total time the cores spent without a process before the last process terminated.
+     *
+     * @return the idle time, summed over all cores
+     */
+    public long getIdleTime() {return IdleTime;}
+
+    /**
+     * Returns the metrics as a table with the mean, p50, p90, p99, p99.9 and maximum of every time, followed by
+     * the context switch, preemption and idle time counts.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\n======================================================================\n");
+        sb.append("=                 Percentiles For All Processes (ms):                =\n");
+        sb.append("======================================================================\n");
+        sb.append(String.format("%-2s %-11s %-9s %-8s %-8s %-8s %-8s %-8s %-1s\n",
+                "=", "Time", "Mean", "p50", "p90", "p99", "p99.9", "Max", "="));
+        sb.append("======================================================================\n");
+        row(sb, "Turnaround", TurnAroundTime);
+        row(sb, "Response", ResponseTime);
+        row(sb, "Waiting", WaitingTime);
+        sb.append("======================================================================\n");
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Completed Processes:", getCompleted(), "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Context Switches:", ContextSwitches, "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Preemptions:", Preemptions, "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Idle Time:", IdleTime + " ms", "="));
+        sb.append("======================================================================\n");
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String name, LatencyHistogram histogram) {
+        sb.append(String.format("%-2s %-11s %-9s %-8d %-8d %-8d %-8d %-8d %-1s\n", "=", name,
+                Math.round(histogram.getMean() * 1000.0) / 1000.0,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                histogram.getMax(), "="));
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * The selection rule of a scheduler: which ready process runs next, whether it takes the CPU from the running
+ * process, and for how long it may run. A policy owns the ready set of a SchedulingEngine, which calls it at every
+ * arrival, dispatch, preemption and expired time slice; the engine itself only advances the clock.
+ *
+ * A policy instance keeps the state of one schedule, so every engine needs its own instance.
+ */
+public interface SchedulingPolicy {
+    /**
+     * Returns the name of the policy, for example "SRTF" or "RR(q=4)".
+     *
+     * @return the name of the policy
+     */
+    String getName();
+
+    /**
+     * Empties the ready set and prepares it for the rows of the given table. Called by the engine before the
+     * first arrival.
+     *
+     * @param table the process table the rows belong to
+     */
+    void reset(ProcessTable table);
+
+    /**
+     * Adds a process that has just arrived to the ready set.
+     *
+     * @param row the row of the process
+     */
+    void arrived(int row);
+
+    /**
+     * Puts a running process back into the ready set after preempts() returned true for it. Its remaining time
+     * in the table is up to date.
+     *
+     * @param row the row of the process
+     */
+    void preempted(int row);
+
+    /**
+     * Puts a running process back into the ready set after it used up its time slice without finishing.
+     *
+     * @param row the row of the process
+     */
+    void expired(int row);
+
+    /**
+     * Removes the process that should run next from the ready set.
+     *
+     * @return the row of the process, the ready set must not be empty
+     */
+    int next();
+
+    /**
+     * Returns true if the best ready process should take the CPU from the running process. Only called when the
+     * ready set is not empty.
+     *
+     * @param running the row of the running process
+     * @return true to preempt the running process
+     */
+    boolean preempts(int running);
+
+    /**
+     * Returns how long a process may run once it is dispatched before the policy is asked again.
+     *
+     * @param row the row of the dispatched process
+     * @return the time slice, or Integer.MAX_VALUE to run until it finishes or is preempted
+     */
+    int getTimeSlice(int row);
+
+    /**
+     * Returns true if no process is waiting.
+     *
+     * @return true if the ready set is empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of waiting processes.
+     *
+     * @return the size of the ready set
+     */
+    int size();
+
+    /**
+     * Returns a copy of the ready set and of whatever else the policy remembers about the schedule so far, such
+     * as tie-break counters, so the schedule can later be resumed from this point with restoreState().
+     *
+     * @return the saved state, holding only the waiting processes and not the whole table
+     */
+    State saveState();
+
+    /**
+     * Restores a state returned by saveState() of this policy. Rows that were not waiting then are treated as
+     * not arrived yet, except the process that was running, which the engine restores itself.
+     *
+     * @param state the saved state
+     */
+    void restoreState(State state);
+
+    /**
+     * A saved state of a policy, see saveState().
+     */
+    interface State {
+        /**
+         * Returns the rows of the processes that were waiting when the state was saved.
+         *
+         * @return the rows of the waiting processes
+         */
+        int[] getWaiting();
+    }
+
+    /**
+     * Returns a new policy for the given name: "srtf:&lt;threshold&gt;", "sjf", "fcfs", "rr:&lt;quantum&gt;" or
+     * "mlfq:&lt;quantum&gt;". A preemption threshold may be left out, in which case it is 0, and so may a quantum,
+     * in which case it is 4.
+     *
+     * @param name the name of the policy, not case sensitive
+     * @return a new instance of the policy
+     */
+    static SchedulingPolicy forName(String name) {
+        String[] parts = name.toLowerCase().split(":", 2);
+        int threshold = 0, quantum = 4;
+        if (parts.length > 1) {
+            try {
+                threshold = quantum = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid parameter in scheduling policy: " + name);
+            }
+        }
+        switch (parts[0]) {
+            case "srtf": return new SRTFPolicy(threshold);
+            case "sjf":  return new SJFPolicy();
+            case "fcfs": return new FCFSPolicy();
+            case "rr":   return new RoundRobinPolicy(quantum);
+            case "mlfq": return new MLFQPolicy(quantum);
+            default: throw new IllegalArgumentException("Unknown scheduling policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Simulates a fleet of hosts by splitting a trace into shards, one per host, and scheduling every shard in its
+ * own worker JVM (see ShardWorker). The workers are started as local processes and connect back over a loopback
+ * socket; each one maps the trace file itself and loads only the processes of its shard (see
+ * TraceLoader.shardOf()), so the coordinator never copies the trace and the shards are scheduled fully in
+ * parallel. The per-shard histograms are added into fleet-wide metrics, and the per-shard completion streams can
+ * be merged into one stream ordered by finishing time.
+ */
+public class ShardCoordinator {
+    private static final int CONNECT_TIMEOUT = 60_000;     // Milliseconds to wait for the workers to connect
+
+    /**
+     * Receives the processes of every shard, merged in order of finishing time.
+     */
+    @FunctionalInterface
+    public interface CompletionSink {
+        void accept(int shard, int id, int finishingTime, int turnAroundTime, int waitingTime, int responseTime)
+                throws IOException;
+    }
+
+    private final int Shards;
+    private int Cores = 1;                      // Number of CPU cores of every host
+    private String Policy = "srtf";             // Name of the policy every host schedules with
+    private final List<String> JvmOptions = new ArrayList<>();
+    private final SchedulingMetrics Metrics = new SchedulingMetrics();   // Fleet-wide, collected by the last run
+    private int[] ShardProcesses, ShardCompletionTime;
+    private long[] ShardNanos;
+
+    /**
+     * Constructs a coordinator of the given number of hosts, each with a single core scheduled by SRTF.
+     *
+     * @param shards the number of shards, that is of worker JVMs
+     */
+    public ShardCoordinator(int shards) {
+        if (shards < 1) throw new IllegalArgumentException("The number of shards must be at least 1: " + shards);
+        Shards = shards;
+    }
+
+    /**
+     * Sets the number of identical CPU cores of every host. The default is 1.
+     *
+     * @param cores the number of simulated cores, at least 1
+     */
+    public void setCores(int cores) {
+        if (cores < 1) throw new IllegalArgumentException("The number of cores must be at least 1: " + cores);
+        Cores = cores;
+    }
+
+    /**
+     * Sets the policy every host schedules with. The default is SRTF.
+     *
+     * @param policy the name of the policy, as accepted by SchedulingPolicy.forName()
+     */
+    public void setPolicy(String policy) {
+        SchedulingPolicy.forName(policy);
+        Policy = policy;
+    }
+
+    /**
+     * Sets extra options for the worker JVMs, such as "-Xmx2g".
+     *
+     * @param options the options passed to every worker JVM
+     */
+    public void setJvmOptions(List<String> options) {
+        JvmOptions.clear();
+        JvmOptions.addAll(options);
+    }
+
+    /**
+     * Schedules every shard of the trace in its own worker JVM and collects the fleet-wide metrics.
+     *
+     * @param trace the trace file, in the text or binary format read by TraceLoader
+     * @param sink receives the completions of all shards in order of finishing time, or null if only the
+     *             metrics are needed
+     * @throws IOException if a worker cannot be started or fails
+     */
+    public void run(Path trace, CompletionSink sink) throws IOException {
+        Metrics.reset();
+        ShardProcesses = new int[Shards];
+        ShardCompletionTime = new int[Shards];
+        ShardNanos = new long[Shards];
+        java.lang.Process[] workers = new java.lang.Process[Shards];
+        Socket[] sockets = new Socket[Shards];
+        try (ServerSocket server = new ServerSocket(0, Shards, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT);
+            for (int s = 0; s < Shards; s++)
+                workers[s] = startWorker(server.getLocalPort(), s);
+
+            DataInputStream[] in = new DataInputStream[Shards];
+            for (int connected = 0; connected < Shards; connected++) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Only " + connected + " of " + Shards + " workers connected");
+                }
+                socket.setTcpNoDelay(true);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                int shard = input.readInt() == ShardWorker.MAGIC ? input.readInt() : -1;
+                if (shard < 0 || shard >= Shards || in[shard] != null)
+                    throw new IOException("Unexpected connection from " + socket.getRemoteSocketAddress());
+                sockets[shard] = socket;
+                in[shard] = input;
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                out.writeUTF(trace.toAbsolutePath().toString());
+                out.writeInt(Shards);
+                out.writeInt(Cores);
+                out.writeUTF(Policy);
+                out.writeBoolean(sink != null);
+                out.flush();
+            }
+
+            for (int s = 0; s < Shards; s++)
+                if (in[s].readInt() != ShardWorker.OK)
+                    throw new IOException(in[s].readUTF());
+            if (sink != null)
+                merge(in, sink);
+            for (int s = 0; s < Shards; s++)
+                readSummary(s, in[s]);
+            for (java.lang.Process worker : workers)
+                worker.waitFor();
+        } catch (EOFException e) {
+            throw new IOException("A worker stopped before sending its results", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the workers", e);
+        } finally {
+            for (Socket socket : sockets)
+                if (socket != null) socket.close();
+            for (java.lang.Process worker : workers)
+                if (worker != null) worker.destroy();
+        }
+    }
+
+    /**
+     * Returns the metrics of the whole fleet collected by the last run.
+     *
+     * @return the fleet-wide metrics
+     */
+    public SchedulingMetrics getMetrics() {return Metrics;}
+
+    /**
+     * Returns the number of processes scheduled by the last run, over all shards.
+     *
+     * @return the number of processes
+     */
+    public long getNumOfProcess() {
+        long total = 0;
+        if (ShardProcesses != null)
+            for (int n : ShardProcesses)
+                total += n;
+        return total;
+    }
+
+    /**
+     * This method prints the number of processes, the completion time and the time spent scheduling of every
+     * shard of the last run, followed by the fleet-wide averages and percentiles.
+     */
+    public void PrintFleetSummary() {
+        if (ShardProcesses == null) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\n======================================================================\n");
+        sb.append("=                     Shards Of The Fleet:                           =\n");
+        sb.append("======================================================================\n");
+        sb.append(String.format("%-2s %-8s %-16s %-20s %-18s %-1s\n",
+                "=", "Shard", "Processes", "Completion Time", "Scheduled In", "="));
+        sb.append("======================================================================\n");
+        int completion = 0;
+        for (int s = 0; s < Shards; s++) {
+            completion = Math.max(completion, ShardCompletionTime[s]);
+            sb.append(String.format("%-2s %-8d %-16d %-20s %-18s %-1s\n", "=", s + 1, ShardProcesses[s],
+                    ShardCompletionTime[s] + " ms", ShardNanos[s] / 1_000_000 + " ms", "="));
+        }
+        sb.append("======================================================================\n");
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Hosts:", Shards + " x " + Cores + " cores", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Fleet Completion Time:", completion + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Average Turnaround Time:",
+                Math.round(Metrics.getTurnAroundTime().getMean() * 1000.0) / 1000.0 + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Average Response Time:",
+                Math.round(Metrics.getResponseTime().getMean() * 1000.0) / 1000.0 + " ms", "="));
+        sb.append(String.format("%-2s %-24s %-40s %-2s\n", "=", "Average Waiting Time:",
+                Math.round(Metrics.getWaitingTime().getMean() * 1000.0) / 1000.0 + " ms", "="));
+        sb.append("======================================================================\n");
+        System.out.print(sb);
+        if (Metrics.getCompleted() > 0)
+            System.out.print(Metrics);
+    }
+
+    private java.lang.Process startWorker(int port, int shard) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(JvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("ShardWorker");
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(shard));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    // Merges the completion streams of the shards by finishing time; ties go to the lower shard. The shards are
+    // few, so the next completion is found by scanning the head of every stream.
+    private void merge(DataInputStream[] in, CompletionSink sink) throws IOException {
+        int[] remaining = new int[Shards];      // Completions left in the current block, -1 once a stream ended
+        int[][] head = new int[Shards][5];      // ID, finishing, turnaround, waiting and response time
+        for (int s = 0; s < Shards; s++)
+            advance(in[s], s, remaining, head);
+        while (true) {
+            int next = -1;
+            for (int s = 0; s < Shards; s++)
+                if (remaining[s] >= 0 && (next < 0 || head[s][1] < head[next][1]))
+                    next = s;
+            if (next < 0) return;
+            int[] c = head[next];
+            sink.accept(next, c[0], c[1], c[2], c[3], c[4]);
+            advance(in[next], next, remaining, head);
+        }
+    }
+
+    // Reads the next completion of a shard into its head, or marks its stream as ended
+    private static void advance(DataInputStream in, int shard, int[] remaining, int[][] head) throws IOException {
+        if (remaining[shard] == 0) {
+            remaining[shard] = in.readInt();
+            if (remaining[shard] == 0) {
+                remaining[shard] = -1;
+                return;
+            }
+        }
+        for (int i = 0; i < 5; i++)
+            head[shard][i] = in.readInt();
+        remaining[shard]--;
+    }
+
+    private void readSummary(int shard, DataInputStream in) throws IOException {
+        ShardProcesses[shard] = in.readInt();
+        ShardCompletionTime[shard] = in.readInt();
+        ShardNanos[shard] = in.readLong();
+        long switches = in.readLong(), preemptions = in.readLong(), idle = in.readLong();
+        LatencyHistogram turnAround = ShardWorker.readHistogram(in);
+        LatencyHistogram waiting = ShardWorker.readHistogram(in);
+        LatencyHistogram response = ShardWorker.readHistogram(in);
+        Metrics.recordHistograms(turnAround, waiting, response);
+        Metrics.recordCounters(switches, preemptions, idle);
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+/**
+ * Worker JVM of a ShardCoordinator. It connects back to the coordinator over a local socket, receives the trace
+ * file and the shard it is responsible for, loads and schedules only the processes of that shard with its own
+ * SRTFScheduler, and sends back the results.
+ *
+ * The protocol is made of big-endian DataOutputStream values:
+ * <ul>
+ *   <li>worker: MAGIC, shard</li>
+ *   <li>coordinator: trace file (UTF), shards, cores, policy (UTF), whether to send completions</li>
+ *   <li>worker: FAILED and a message (UTF), or OK followed, if asked, by blocks of completions (a count, then
+ *   ID, finishing, turnaround, waiting and response time per process) in finishing order, ended by an empty
+ *   block, and then the summary: processes, completion time, nanoseconds spent, context switches, preemptions,
+ *   idle time and the turnaround, waiting and response time histograms</li>
+ * </ul>
+ */
+public final class ShardWorker {
+    static final int MAGIC = 0x53524457;        // "SRDW"
+    static final int OK = 0, FAILED = 1;
+    static final int BLOCK = 4096;              // Completions per block
+
+    private ShardWorker() {}
+
+    /**
+     * Entry point of a worker JVM, started by a ShardCoordinator.
+     *
+     * @param args the port of the coordinator on the loopback address and the shard of the worker
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]), shard = Integer.parseInt(args[1]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(shard);
+            out.flush();
+
+            Path trace = Path.of(in.readUTF());
+            int shards = in.readInt(), cores = in.readInt();
+            String policy = in.readUTF();
+            boolean completions = in.readBoolean();
+
+            SRTFScheduler scheduler = new SRTFScheduler();
+            scheduler.setRecordGantt(false);
+            long start = System.nanoTime();
+            try {
+                scheduler.setCores(cores);
+                scheduler.setPolicy(SchedulingPolicy.forName(policy));
+                TraceLoader.load(trace, scheduler, shard, shards);
+                scheduler.SchedulingAlgorithm();
+            } catch (IOException e) {
+                fail(out, "Shard " + (shard + 1) + ": cannot read the trace file " + trace + ": " + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                fail(out, "Shard " + (shard + 1) + ": " + e.getMessage());
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            out.writeInt(OK);
+            if (completions)
+                writeCompletions(scheduler, out);
+            SchedulingMetrics metrics = scheduler.getMetrics();
+            int n = scheduler.getNumOfProcess(), completion = 0;
+            for (int i = 0; i < n; i++)
+                completion = Math.max(completion, scheduler.getProcess(i).getFinishingTime());
+            out.writeInt(n);
+            out.writeInt(completion);
+            out.writeLong(elapsed);
+            out.writeLong(metrics.getContextSwitches());
+            out.writeLong(metrics.getPreemptions());
+            out.writeLong(metrics.getIdleTime());
+            writeHistogram(metrics.getTurnAroundTime(), out);
+            writeHistogram(metrics.getWaitingTime(), out);
+            writeHistogram(metrics.getResponseTime(), out);
+            out.flush();
+        }
+    }
+
+    private static void fail(DataOutputStream out, String message) throws IOException {
+        out.writeInt(FAILED);
+        out.writeUTF(message);
+        out.flush();
+    }
+
+    // Sends the processes ordered by finishing time, so the coordinator can merge the shards as streams
+    private static void writeCompletions(SRTFScheduler scheduler, DataOutputStream out) throws IOException {
+        int n = scheduler.getNumOfProcess();
+        int[] finish = new int[n];
+        for (int i = 0; i < n; i++)
+            finish[i] = scheduler.getProcess(i).getFinishingTime();
+        int[] order = IntSort.sortedOrder(finish, n);
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            out.writeInt(to - from);
+            for (int i = from; i < to; i++) {
+                Process process = scheduler.getProcess(order[i]);
+                out.writeInt(process.getProcessID());
+                out.writeInt(process.getFinishingTime());
+                out.writeInt(process.getTurnAroundTime());
+                out.writeInt(process.getWaitingTime());
+                out.writeInt(process.getResponseTime());
+            }
+        }
+        out.writeInt(0);
+    }
+
+    private static void writeHistogram(LatencyHistogram histogram, DataOutputStream out) throws IOException {
+        long[] counts = histogram.getCounts();
+        out.writeInt(counts.length);
+        for (long count : counts)
+            out.writeLong(count);
+        out.writeLong(histogram.getSum());
+        out.writeInt(histogram.getMin());
+        out.writeInt(histogram.getMax());
+    }
+
+    /**
+     * Reads a histogram written by a worker.
+     *
+     * @param in the stream from the worker
+     * @return the histogram
+     * @throws IOException if the stream cannot be read
+     */
+    static LatencyHistogram readHistogram(DataInputStream in) throws IOException {
+        long[] counts = new long[in.readInt()];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = in.readLong();
+        long sum = in.readLong();
+        int min = in.readInt(), max = in.readInt();
+        return LatencyHistogram.fromCounts(counts, sum, min, max);
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.Arrays;
+/**
+ * Streaming front end for the SchedulingEngine, by default with the SRTF (Shortest Remaining Time First) policy.
+ * Processes are submitted one at a time in nondecreasing arrival time, and each process is reported to the
+ * CompletionListener as soon as it terminates. Rows of finished processes are reused, so memory is bounded by
+ * the number of live processes rather than by the length of the trace.
+ */
+public class StreamingScheduler {
+    private final ProcessTable Table;
+    private final SchedulingEngine Engine;
+    private final SchedulingMetrics Metrics = new SchedulingMetrics();   // Updated as processes terminate
+    private final IntSet LiveIDs;               // IDs of the processes that have not terminated yet
+    private int[] FreeRows = new int[16];       // Stack of table rows that can be reused
+    private int NumOfFreeRows = 0;
+    private int LastArrival = 0;
+    private long Submitted = 0;
+
+    /**
+     * Constructs a streaming SRTF scheduler that reports every finished process to the given listener.
+     *
+     * @param listener the listener notified when a process terminates
+     */
+    public StreamingScheduler(CompletionListener listener) {
+        this(new SRTFPolicy(), listener);
+    }
+
+    /**
+     * Constructs a streaming scheduler with the given policy that reports every finished process to the given
+     * listener.
+     *
+     * @param policy the scheduling policy, not shared with another scheduler
+     * @param listener the listener notified when a process terminates
+     */
+    public StreamingScheduler(SchedulingPolicy policy, CompletionListener listener) {
+        Table = new ProcessTable(16);
+        LiveIDs = new IntSet(16);
+        Engine = new SchedulingEngine(Table, policy);
+        Engine.setMetrics(Metrics);
+        Engine.setCompletionListener(process -> {
+            listener.processCompleted(process);
+            release(process.getProcessID(), process.getRow());
+        });
+    }
+
+    /**
+     * Turns live instrumentation on or off, see SchedulerProbe.
+     *
+     * @param probe the probe to report to, or null to turn instrumentation off
+     */
+    public void setProbe(SchedulerProbe probe) {
+        Engine.setProbe(probe);
+    }
+
+    /**
+     * Sets the simulated time each context switch takes, see SchedulingEngine.
+     *
+     * @param cost the switch cost, not negative
+     */
+    public void setContextSwitchCost(int cost) {
+        Engine.setContextSwitchCost(cost);
+    }
+
+    /**
+     * Returns true if no live process uses the given ID.
+     *
+     * @param id the process ID to check
+     * @return true if the given ID is valid, false otherwise
+     */
+    public boolean ValidID(int id) {
+        return !LiveIDs.contains(id);
+    }
+
+    /**
+     * Submits a new process. Every process that terminates before its arrival time is reported first. A rejected
+     * process leaves the scheduler as it was, apart from the processes reported up to its arrival time.
+     *
+     * @param id the ID of the process, must not be used by a live process
+     * @param at the arrival time, must not be earlier than the previous arrival or the current time
+     * @param bt the burst time, must be greater than 0
+     */
+    public void submit(int id, int at, int bt) {
+        if (at < LastArrival)
+            throw new IllegalArgumentException("Arrival time " + at + " is before the previous arrival " + LastArrival);
+        if (at < Engine.getCurrentTime())
+            throw new IllegalArgumentException("Arrival time " + at + " is before the current time "
+                    + Engine.getCurrentTime());
+        if (at < 0 || bt <= 0)
+            throw new IllegalArgumentException("Invalid arrival time " + at + " or burst time " + bt);
+        // The clock moves on even if the ID is taken, since the process using it may terminate before time at
+        Engine.advanceTo(at);
+        LastArrival = at;
+        if (!LiveIDs.add(id))
+            throw new IllegalArgumentException("The ID " + id + " is already taken by another process");
+
+        int row;
+        if (NumOfFreeRows > 0) {
+            row = FreeRows[--NumOfFreeRows];
+            Table.set(row, id, at, bt);
+        } else {
+            row = Table.add(id, at, bt);
+        }
+        Submitted++;
+        Engine.arrive(row);
+    }
+
+    /**
+     * Runs every submitted process to completion. More processes may be submitted afterwards, as long as they
+     * do not arrive before the current time.
+     */
+    public void finish() {
+        Engine.drain();
+    }
+
+    /**
+     * Returns the current simulated time.
+     *
+     * @return the current simulated time
+     */
+    public int getCurrentTime() {return Engine.getCurrentTime();}
+
+    /**
+     * Returns the number of processes submitted so far.
+     *
+     * @return the number of submitted processes
+     */
+    public long getSubmitted() {return Submitted;}
+
+    /**
+     * Returns the metrics of every process that has terminated so far. They take constant memory however long
+     * the stream is.
+     *
+     * @return the metrics collected so far
+     */
+    public SchedulingMetrics getMetrics() {return Metrics;}
+
+    /**
+     * Returns the number of submitted processes that have not terminated yet.
+     *
+     * @return the number of live processes
+     */
+    public int getLiveProcesses() {return Engine.getLiveProcesses();}
+
+    private void release(int id, int row) {
+        LiveIDs.remove(id);
+        if (NumOfFreeRows == FreeRows.length)
+            FreeRows = Arrays.copyOf(FreeRows, NumOfFreeRows * 2);
+        FreeRows[NumOfFreeRows++] = row;
+    }
+}
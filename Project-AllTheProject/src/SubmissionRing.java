@@ -0,0 +1,128 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * Bounded lock-free multi-producer single-consumer ring buffer of submitted processes (ID, arrival time and burst
+ * time). A producer claims a slot with a single atomic increment of the tail, waits until the consumer has freed
+ * that slot, writes the process and publishes it through the slot's sequence number; the consumer takes the
+ * published slots in claim order without any atomic read-modify-write. Producers never contend on anything but
+ * the tail, and the process fields stay in primitive arrays, so a submission allocates nothing.
+ *
+ * The sequence number of a slot is the ticket of the producer allowed to write it next, or that ticket plus one
+ * once the process is published. Closing the ring sets a high bit in the tail, so every later claim sees it and
+ * the consumer knows the exact last ticket it has to wait for.
+ */
+public class SubmissionRing {
+    private static final long CLOSED = 1L << 62;    // Set in the tail once the ring is closed
+
+    private final int Mask;
+    private final int[] ProcessID, ArrivalTime, BurstTime;
+    private final AtomicLongArray Sequence;
+    private final AtomicLong Tail = new AtomicLong();
+    private long Head = 0;                          // Next ticket to consume, only used by the consumer
+    private volatile long End = Long.MAX_VALUE;     // Number of tickets claimed before the ring was closed
+    private volatile boolean Aborted = false;       // Set once the consumer has stopped for good
+
+    /**
+     * Constructs an empty ring.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public SubmissionRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        Mask = size - 1;
+        ProcessID = new int[size];
+        ArrivalTime = new int[size];
+        BurstTime = new int[size];
+        Sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            Sequence.set(i, i);
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity of the ring
+     */
+    public int capacity() {return Mask + 1;}
+
+    /**
+     * Adds a process, waiting for a free slot if the ring is full. Safe to call from any number of threads.
+     *
+     * @param id the ID of the process
+     * @param at the arrival time
+     * @param bt the burst time
+     * @return true if the process was added, false if the ring is closed or aborted
+     */
+    public boolean offer(int id, int at, int bt) {
+        long ticket = Tail.getAndIncrement();
+        if ((ticket & CLOSED) != 0) return false;
+        int slot = (int) ticket & Mask;
+        for (int spins = 0; Sequence.get(slot) != ticket; spins++) {
+            if (Aborted) return false;
+            backOff(spins);
+        }
+        ProcessID[slot] = id;
+        ArrivalTime[slot] = at;
+        BurstTime[slot] = bt;
+        Sequence.lazySet(slot, ticket + 1);
+        return true;
+    }
+
+    /**
+     * Moves up to the given number of published processes into the scheduler, in the order they were claimed.
+     * Only the single consumer thread may call this.
+     *
+     * @param scheduler the scheduler to add the processes to
+     * @param max the largest number of processes to move
+     * @return the number of processes moved
+     */
+    public int drainTo(SRTFScheduler scheduler, int max) {
+        int moved = 0;
+        for (; moved < max; moved++) {
+            int slot = (int) Head & Mask;
+            if (Sequence.get(slot) != Head + 1) break;
+            scheduler.AddProcess(ProcessID[slot], ArrivalTime[slot], BurstTime[slot]);
+            Sequence.lazySet(slot, Head + Mask + 1);
+            Head++;
+        }
+        return moved;
+    }
+
+    /**
+     * Closes the ring. Offers that claim a slot afterwards fail, while those that claimed one before are still
+     * consumed.
+     */
+    public void close() {
+        long claimed;
+        do {
+            claimed = Tail.get();
+            if ((claimed & CLOSED) != 0) return;
+        } while (!Tail.compareAndSet(claimed, claimed | CLOSED));
+        End = claimed;
+    }
+
+    /**
+     * Closes the ring because the consumer has stopped for good. Offers fail from then on, including those
+     * already waiting for a slot to be freed, instead of waiting forever.
+     */
+    public void abort() {
+        Aborted = true;
+        close();
+    }
+
+    /**
+     * Returns true once the ring is closed and every process offered before that has been consumed.
+     *
+     * @return true if the ring is closed and drained, false otherwise
+     */
+    public boolean isDrained() {return Head >= End;}
+
+    // Spin briefly, then give the CPU to other threads, which may be the consumer the producer is waiting for
+    private static void backOff(int spins) {
+        if (spins < 64) Thread.onSpinWait();
+        else Thread.yield();
+    }
+}
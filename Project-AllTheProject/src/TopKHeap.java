@@ -0,0 +1,129 @@
+import java.util.Arrays;
+/**
+ * Keeps the IDs of the processes with the largest values seen so far, for example the worst waiting times of a
+ * run, in a bounded binary min-heap of primitive ints. Offering a value costs O(1) when it is not among the
+ * largest and O(log k) otherwise, so the heap can be fed every completion of a run.
+ *
+ * Values are ordered from large to small and equal values by ascending ID, so the kept processes do not depend
+ * on the order they were offered in.
+ */
+public class TopKHeap {
+    private final int[] Value, ID;      // Heap ordered, the smallest kept value at the root
+    private int Size = 0;
+
+    /**
+     * Constructs an empty heap.
+     *
+     * @param capacity the number of processes to keep, not negative
+     */
+    public TopKHeap(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("The capacity must not be negative: " + capacity);
+        Value = new int[capacity];
+        ID = new int[capacity];
+    }
+
+    /**
+     * Returns the number of processes the heap keeps at most.
+     *
+     * @return the capacity
+     */
+    public int capacity() {return Value.length;}
+
+    /**
+     * Returns the number of processes kept.
+     *
+     * @return the number of processes kept
+     */
+    public int size() {return Size;}
+
+    /**
+     * Offers a process, which is kept if its value is among the largest seen so far.
+     *
+     * @param value the value of the process, such as its waiting time
+     * @param id the ID of the process
+     */
+    public void offer(int value, int id) {
+        if (Size < Value.length) {
+            int i = Size++;
+            // Sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(value, id, Value[parent], ID[parent])) break;
+                Value[i] = Value[parent];
+                ID[i] = ID[parent];
+                i = parent;
+            }
+            Value[i] = value;
+            ID[i] = id;
+        } else if (Size > 0 && less(Value[0], ID[0], value, id)) {
+            // Replace the root and sift down
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= Size) break;
+                if (child + 1 < Size && less(Value[child + 1], ID[child + 1], Value[child], ID[child])) child++;
+                if (!less(Value[child], ID[child], value, id)) break;
+                Value[i] = Value[child];
+                ID[i] = ID[child];
+                i = child;
+            }
+            Value[i] = value;
+            ID[i] = id;
+        }
+    }
+
+    /**
+     * Offers every process kept by another heap.
+     *
+     * @param other the heap to add
+     */
+    public void add(TopKHeap other) {
+        for (int i = 0; i < other.Size; i++)
+            offer(other.Value[i], other.ID[i]);
+    }
+
+    /**
+     * Removes every process.
+     */
+    public void clear() {Size = 0;}
+
+    /**
+     * Returns the IDs of the processes kept, from the largest value to the smallest.
+     *
+     * @return the IDs in descending order of value
+     */
+    public int[] getIDs() {
+        long[] sorted = sorted();
+        int[] ids = new int[Size];
+        for (int i = 0; i < Size; i++)
+            ids[i] = (int) sorted[i] ^ Integer.MIN_VALUE;
+        return ids;
+    }
+
+    /**
+     * Returns the values of the processes kept, from the largest to the smallest.
+     *
+     * @return the values in descending order
+     */
+    public int[] getValues() {
+        long[] sorted = sorted();
+        int[] values = new int[Size];
+        for (int i = 0; i < Size; i++)
+            values[i] = ~(int) (sorted[i] >> 32);
+        return values;
+    }
+
+    // Packs every entry so that ascending longs are descending values, then ascending IDs
+    private long[] sorted() {
+        long[] keys = new long[Size];
+        for (int i = 0; i < Size; i++)
+            keys[i] = (long) ~Value[i] << 32 | (ID[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    // True if the first process ranks below the second: a smaller value, or an equal value and a larger ID
+    private static boolean less(int value1, int id1, int value2, int id2) {
+        return value1 < value2 || value1 == value2 && id1 > id2;
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * Loads a trace file of processes straight into an SRTFScheduler. Two formats are supported:
+ * a text format with one "ID AT BT" triple per line (blank lines and lines starting with '#' are skipped, and a
+ * "0 0 0" line ends the trace like it does at the prompt), and a binary format written by TraceWriter made of an
+ * 8-byte header followed by fixed-width records of three big-endian ints.
+ * The file is memory-mapped and parsed byte by byte without allocating per process, and every process goes
+ * through the same checks as the interactive input.
+ */
+public final class TraceLoader {
+    public static final int MAGIC = 0x53525442;             // "SRTB", first 4 bytes of a binary trace
+    public static final int VERSION = 1;                    // Binary format version, second 4 bytes
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 12;               // ID, arrival time and burst time
+    private static final long WINDOW = RECORD_SIZE << 22;   // Bytes mapped at a time (48 MB)
+
+    private TraceLoader() {}
+
+    /**
+     * Loads every valid process of the trace file into the scheduler. Invalid processes are reported on the
+     * console and skipped.
+     *
+     * @param file the trace file, in text or binary format
+     * @param scheduler the scheduler to add the processes to
+     * @return the number of processes added
+     * @throws IOException if the file cannot be read or is not a valid binary trace
+     */
+    public static int load(Path file, SRTFScheduler scheduler) throws IOException {
+        return load(file, scheduler, 0, 1);
+    }
+
+    /**
+     * Loads the valid processes of one shard of the trace file into the scheduler, skipping those that belong
+     * to other shards (see shardOf()). Invalid processes of the shard are reported on the console, and lines
+     * that cannot be parsed at all are only reported by shard 0.
+     *
+     * @param file the trace file, in text or binary format
+     * @param scheduler the scheduler to add the processes to
+     * @param shard the shard to load, from 0 to shards - 1
+     * @param shards the number of shards the trace is split into
+     * @return the number of processes added
+     * @throws IOException if the file cannot be read or is not a valid binary trace
+     */
+    public static int load(Path file, SRTFScheduler scheduler, int shard, int shards) throws IOException {
+        if (shard < 0 || shard >= shards)
+            throw new IllegalArgumentException("Invalid shard " + shard + " of " + shards);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= HEADER_SIZE && channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).getInt(0) == MAGIC)
+                return loadBinary(channel, size, scheduler, shard, shards);
+            return loadText(channel, size, scheduler, shard, shards);
+        }
+    }
+
+    /**
+     * Returns the shard a process belongs to when a trace is split into the given number of shards. The IDs are
+     * hashed first, so consecutive IDs are spread evenly over the shards.
+     *
+     * @param id the process ID
+     * @param shards the number of shards
+     * @return the shard, from 0 to shards - 1
+     */
+    public static int shardOf(int id, int shards) {
+        return (int) (((id * 0x9E3779B9) & 0xFFFFFFFFL) * shards >>> 32);
+    }
+
+    private static int loadBinary(FileChannel channel, long size, SRTFScheduler scheduler, int shard, int shards)
+            throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(4) != VERSION)
+            throw new IOException("Unsupported binary trace version " + header.getInt(4));
+        if ((size - HEADER_SIZE) % RECORD_SIZE != 0)
+            throw new IOException("Binary trace is truncated: " + (size - HEADER_SIZE) % RECORD_SIZE + " extra bytes");
+        long records = (size - HEADER_SIZE) / RECORD_SIZE;
+        long expected = (records + shards - 1) / shards;    // A shard that gets more grows as it goes
+        if (expected + scheduler.getNumOfProcess() > Integer.MAX_VALUE)
+            throw new IOException("Binary trace has too many processes: " + records);
+        scheduler.ensureCapacity((int) expected + scheduler.getNumOfProcess());
+
+        int input = 0, added = 0;
+        for (long pos = HEADER_SIZE; pos < size; pos += WINDOW) {
+            int length = (int) Math.min(WINDOW, size - pos);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+            for (int i = 0; i < length; i += RECORD_SIZE)
+                if (accept(scheduler, ++input, buffer.getInt(i), buffer.getInt(i + 4), buffer.getInt(i + 8),
+                        shard, shards))
+                    added++;
+        }
+        return added;
+    }
+
+    private static int loadText(FileChannel channel, long size, SRTFScheduler scheduler, int shard, int shards)
+            throws IOException {
+        int input = 0, added = 0;
+        int fields = 0, id = 0, at = 0, bt = 0;     // Numbers read so far on the current line
+        long value = 0;                             // Magnitude of the number being read
+        int digits = 0;
+        boolean inNumber = false, negative = false, bad = false, comment = false;
+
+        // The parser state carries over between windows, so a line may span two of them
+        for (long pos = 0; pos <= size; pos += WINDOW) {
+            int length = (int) Math.min(WINDOW, size - pos);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+            boolean last = pos + length == size;
+            for (int i = 0; i < length || (last && i == length); i++) {
+                int c = i < length ? buffer.get(i) : '\n';      // The end of the file ends the last line
+                if (comment && c != '\n') continue;
+
+                if (c >= '0' && c <= '9') {
+                    if (!inNumber) {
+                        inNumber = true;
+                        value = 0;
+                        digits = 0;
+                        negative = false;
+                    }
+                    value = value * 10 + (c - '0');
+                    digits++;
+                    if (value > Integer.MAX_VALUE + 1L) bad = true;
+                    continue;
+                }
+                if (c == '-' && !inNumber) {
+                    inNumber = true;
+                    value = 0;
+                    digits = 0;
+                    negative = true;
+                    continue;
+                }
+
+                // Any other character ends the number being read
+                if (inNumber) {
+                    inNumber = false;
+                    long number = negative ? -value : value;
+                    if (digits == 0 || number > Integer.MAX_VALUE || number < Integer.MIN_VALUE) bad = true;
+                    else if (fields == 0) id = (int) number;
+                    else if (fields == 1) at = (int) number;
+                    else if (fields == 2) bt = (int) number;
+                    fields++;
+                }
+
+                if (c == '\n') {
+                    if (fields > 0 || bad) {
+                        input++;
+                        if (bad || fields != 3) {
+                            if (shard == 0)
+                                System.out.printf("Error at input No. %d: Invalid input format.\n", input);
+                        } else if (id == 0 && at == 0 && bt == 0) {
+                            return added;
+                        } else if (accept(scheduler, input, id, at, bt, shard, shards)) {
+                            added++;
+                        }
+                    }
+                    fields = 0;
+                    bad = false;
+                    comment = false;
+                } else if (c == '#' && fields == 0 && !bad) {
+                    comment = true;
+                } else if (c != ' ' && c != '\t' && c != '\r') {
+                    bad = true;
+                }
+            }
+            if (last) break;
+        }
+        return added;
+    }
+
+    // Applies the same checks as the interactive input, then adds the process to the scheduler if it belongs to
+    // the shard
+    private static boolean accept(SRTFScheduler scheduler, int input, int id, int at, int bt, int shard, int shards) {
+        if (shards > 1 && shardOf(id, shards) != shard) return false;
+        boolean validID = scheduler.ValidID(id);
+        if (!validID || at < 0 || bt <= 0) {
+            SRTFMain.printInputErrors(input, validID, at, bt);
+            return false;
+        }
+        scheduler.AddProcess(id, at, bt);
+        return true;
+    }
+}
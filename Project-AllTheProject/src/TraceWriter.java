@@ -0,0 +1,59 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+/**
+ * Writes processes to a binary trace file that can be read back by TraceLoader: an 8-byte header (magic number
+ * and version) followed by one fixed-width record of three big-endian ints (ID, arrival time, burst time) per
+ * process.
+ */
+public class TraceWriter implements Closeable {
+    private final DataOutputStream Out;
+    private long Written = 0;
+
+    /**
+     * Creates the trace file, replacing any existing file, and writes its header.
+     *
+     * @param file the trace file to create
+     * @throws IOException if the file cannot be written
+     */
+    public TraceWriter(Path file) throws IOException {
+        Out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        Out.writeInt(TraceLoader.MAGIC);
+        Out.writeInt(TraceLoader.VERSION);
+    }
+
+    /**
+     * Appends one process to the trace.
+     *
+     * @param id the process ID
+     * @param at the arrival time of the process
+     * @param bt the burst time of the process
+     * @throws IOException if the file cannot be written
+     */
+    public void write(int id, int at, int bt) throws IOException {
+        Out.writeInt(id);
+        Out.writeInt(at);
+        Out.writeInt(bt);
+        Written++;
+    }
+
+    /**
+     * Returns the number of processes written so far.
+     *
+     * @return the number of processes written
+     */
+    public long getWritten() {return Written;}
+
+    /**
+     * Flushes the remaining records and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        Out.close();
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * A set of processes that can be loaded into a fresh SRTFScheduler, used to evaluate many independent workloads
+ * with a BatchEvaluator.
+ */
+@FunctionalInterface
+public interface Workload {
+    /**
+     * Adds the processes of the workload to the given scheduler with AddProcess().
+     *
+     * @param scheduler an empty scheduler that belongs to this workload only
+     */
+    void load(SRTFScheduler scheduler);
+
+    /**
+     * Returns a workload made of the given columns, one process per index.
+     *
+     * @param ids the process IDs
+     * @param arrivalTimes the arrival times
+     * @param burstTimes the burst times
+     * @return the workload
+     */
+    static Workload of(int[] ids, int[] arrivalTimes, int[] burstTimes) {
+        return scheduler -> {
+            scheduler.ensureCapacity(ids.length);
+            for (int i = 0; i < ids.length; i++)
+                scheduler.AddProcess(ids[i], arrivalTimes[i], burstTimes[i]);
+        };
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+/**
+ * Seeded generator of synthetic workloads. Arrivals follow a Poisson process, optionally modulated by a
+ * diurnal (sinusoidal) load curve, and burst times follow a BurstDistribution. Processes are streamed straight
+ * into a scheduler's AddProcess() or into a binary trace file, without collecting the workload first; the IDs
+ * run from 1 in arrival order.
+ *
+ * The simulated time is cut into windows of about 65536 expected arrivals. Arrivals of a Poisson process in
+ * disjoint windows are independent, so every window draws from its own SplittableRandom, seeded in window
+ * order from the generator's seed. The windows can therefore be generated on any number of threads, and the
+ * same seed and settings give exactly the same workload however many threads are used.
+ */
+public class WorkloadGenerator implements Workload {
+    private static final double WINDOW_ARRIVALS = 1 << 16;  // Expected arrivals per window
+
+    /**
+     * Receives the generated processes in arrival order.
+     */
+    @FunctionalInterface
+    public interface JobSink {
+        void accept(int id, int at, int bt);
+    }
+
+    private final long Seed;
+    private final int Count;
+    private BurstDistribution Bursts = BurstDistribution.exponential(50);
+    private double ArrivalRate = 0;     // 0 keeps the processors 90% busy on average
+    private int DiurnalPeriod = 0;      // 0 turns the load curve off
+    private double DiurnalAmplitude = 0;
+
+    /**
+     * Constructs a generator of exponentially distributed burst times with a mean of 50, arriving at a constant
+     * rate that keeps a single processor 90% busy.
+     *
+     * @param seed the seed of the random number generators
+     * @param count the number of processes to generate
+     */
+    public WorkloadGenerator(long seed, int count) {
+        if (count < 0) throw new IllegalArgumentException("The number of processes must not be negative: " + count);
+        Seed = seed;
+        Count = count;
+    }
+
+    /**
+     * Sets the distribution of the burst times.
+     *
+     * @param bursts the burst time distribution
+     */
+    public void setBursts(BurstDistribution bursts) {
+        Bursts = bursts;
+    }
+
+    /**
+     * Sets the mean number of arrivals per time unit.
+     *
+     * @param rate the arrival rate, greater than 0, or 0 to keep a single processor 90% busy on average
+     */
+    public void setArrivalRate(double rate) {
+        if (!(rate >= 0)) throw new IllegalArgumentException("The arrival rate must not be negative: " + rate);
+        ArrivalRate = rate;
+    }
+
+    /**
+     * Modulates the arrival rate with a daily load curve: at time t the rate is multiplied by
+     * 1 + amplitude * sin(2 * pi * t / period), which keeps the mean rate but alternates busy and quiet periods.
+     *
+     * @param period the length of one cycle in time units, or 0 for a constant rate
+     * @param amplitude the relative swing of the rate, between 0 and 1
+     */
+    public void setDiurnal(int period, double amplitude) {
+        if (period < 0) throw new IllegalArgumentException("The period must not be negative: " + period);
+        if (!(amplitude >= 0 && amplitude <= 1))
+            throw new IllegalArgumentException("The amplitude must be between 0 and 1: " + amplitude);
+        DiurnalPeriod = period;
+        DiurnalAmplitude = period == 0 ? 0 : amplitude;
+    }
+
+    /**
+     * Returns the seed of the random number generators.
+     *
+     * @return the seed
+     */
+    public long getSeed() {return Seed;}
+
+    /**
+     * Returns the number of processes the generator produces.
+     *
+     * @return the number of processes
+     */
+    public int getCount() {return Count;}
+
+    /**
+     * Adds the generated processes to a scheduler.
+     *
+     * @param scheduler the scheduler to add the processes to
+     */
+    @Override
+    public void load(SRTFScheduler scheduler) {
+        scheduler.ensureCapacity(scheduler.getNumOfProcess() + Count);
+        generate(scheduler::AddProcess);
+    }
+
+    /**
+     * Generates the workload on the calling thread.
+     *
+     * @param sink receives the processes in arrival order
+     */
+    public void generate(JobSink sink) {
+        SplittableRandom seeds = new SplittableRandom(Seed);
+        double rate = rate(), length = windowLength(rate);
+        int generated = 0;
+        for (long window = 0; generated < Count; window++)
+            generated = window(window * length, length, rate, seeds.nextLong(), generated, sink);
+    }
+
+    /**
+     * Writes the workload to a binary trace file that can be read back by TraceLoader, generating the windows on
+     * the given number of threads while the calling thread writes them in order.
+     *
+     * @param file the trace file to create, replacing any existing file
+     * @param threads the number of threads generating windows
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTrace(Path file, int threads) throws IOException {
+        if (threads < 1) throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        SplittableRandom seeds = new SplittableRandom(Seed);
+        double rate = rate(), length = windowLength(rate);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(TraceLoader.HEADER_SIZE);
+            header.putInt(TraceLoader.MAGIC).putInt(TraceLoader.VERSION).flip();
+            writeFully(channel, header);
+            int written = 0;
+            for (long window = 0; written < Count; ) {
+                // Two windows per thread, so a thread that finishes early finds more work
+                List<WindowBuffer> round = new ArrayList<>(threads * 2);
+                for (int i = 0; i < threads * 2; i++, window++)
+                    round.add(new WindowBuffer(window * length, length, rate, seeds.nextLong()));
+                for (Future<WindowBuffer> task : pool.invokeAll(round)) {
+                    WindowBuffer buffer = task.get();
+                    written = buffer.number(written, Count);
+                    writeFully(channel, buffer.Records);
+                    if (written == Count) break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException("Failed to generate " + file, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Arrival rate actually used: the configured one or the one keeping a single processor 90% busy
+    private double rate() {
+        return ArrivalRate > 0 ? ArrivalRate : 0.9 / Bursts.getMean();
+    }
+
+    private static double windowLength(double rate) {
+        return Math.max(1, Math.ceil(WINDOW_ARRIVALS / rate));
+    }
+
+    // Generates the arrivals in [start, start + length) with IDs after the given number of processes, stopping
+    // at Count; returns the number of processes generated so far. Arrivals at the peak rate are thinned by the
+    // load curve, which keeps each one with probability rate(t) / peak rate.
+    private int window(double start, double length, double rate, long seed, int generated, JobSink sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double peak = rate * (1 + DiurnalAmplitude), end = start + length;
+        double omega = DiurnalPeriod == 0 ? 0 : 2 * Math.PI / DiurnalPeriod;
+        for (double time = start; generated < Count; ) {
+            time -= Math.log(1 - random.nextDouble()) / peak;
+            if (time >= end) break;
+            if (DiurnalAmplitude > 0
+                    && random.nextDouble() * (1 + DiurnalAmplitude) > 1 + DiurnalAmplitude * Math.sin(omega * time))
+                continue;
+            if (time >= Integer.MAX_VALUE)
+                throw new ArithmeticException("The arrivals do not fit before time " + Integer.MAX_VALUE);
+            sink.accept(++generated, (int) time, Bursts.sample(random));
+        }
+        return generated;
+    }
+
+    // One window generated on a worker thread as trace records; the IDs are filled in by the writing thread,
+    // which is the only one that knows how many processes the earlier windows produced
+    private final class WindowBuffer implements Callable<WindowBuffer>, JobSink {
+        private final double Start, Length, Rate;
+        private final long WindowSeed;
+        private ByteBuffer Records;
+
+        WindowBuffer(double start, double length, double rate, long seed) {
+            Start = start;
+            Length = length;
+            Rate = rate;
+            WindowSeed = seed;
+        }
+
+        @Override
+        public WindowBuffer call() {
+            Records = ByteBuffer.allocate((int) (WINDOW_ARRIVALS * 1.25) * TraceLoader.RECORD_SIZE);
+            window(Start, Length, Rate, WindowSeed, 0, this);
+            Records.flip();
+            return this;
+        }
+
+        @Override
+        public void accept(int id, int at, int bt) {
+            if (Records.remaining() < TraceLoader.RECORD_SIZE) {
+                ByteBuffer larger = ByteBuffer.allocate(Records.capacity() * 2);
+                Records.flip();
+                Records = larger.put(Records);
+            }
+            Records.putInt(0).putInt(at).putInt(bt);
+        }
+
+        // Numbers the records after the given number of processes, dropping those beyond the limit
+        int number(int written, int limit) {
+            int records = Math.min(Records.limit() / TraceLoader.RECORD_SIZE, limit - written);
+            Records.limit(records * TraceLoader.RECORD_SIZE);
+            for (int i = 0; i < records; i++)
+                Records.putInt(i * TraceLoader.RECORD_SIZE, ++written);
+            return written;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
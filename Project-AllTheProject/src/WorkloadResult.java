@@ -0,0 +1,31 @@
+/**
+ * The averages of one scheduled workload, as computed by SRTFScheduler.CalculateAverages().
+ */
+public class WorkloadResult {
+    public final int NumOfProcess;                  // Number of processes scheduled
+    public final int CompletionTime;                // Time at which the last process finished
+    public final double AverageTurnAroundTime, AverageWaitingTime, AverageResponseTime;
+
+    /**
+     * Collects the averages of a scheduler whose SchedulingAlgorithm() method has run.
+     *
+     * @param scheduler the scheduler of the workload
+     */
+    public WorkloadResult(SRTFScheduler scheduler) {
+        scheduler.CalculateAverages();
+        NumOfProcess = scheduler.getNumOfProcess();
+        int completion = 0;
+        for (int i = 0; i < NumOfProcess; i++)
+            completion = Math.max(completion, scheduler.getProcess(i).getFinishingTime());
+        CompletionTime = completion;
+        AverageTurnAroundTime = scheduler.AverageTurnAroundTime;
+        AverageWaitingTime = scheduler.AverageWaitingTime;
+        AverageResponseTime = scheduler.AverageResponseTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("processes=%d completion=%d turnaround=%s waiting=%s response=%s",
+                NumOfProcess, CompletionTime, AverageTurnAroundTime, AverageWaitingTime, AverageResponseTime);
+    }
+}